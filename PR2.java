@@ -1,13 +1,33 @@
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 import java.util.Scanner;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Callable;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntUnaryOperator;
 import java.util.stream.Collectors;
 
 
@@ -17,25 +37,35 @@ public class AsyncArrayProcessor {
     private static final int MAX_ARRAY_SIZE = 60;
     private static final int ARRAY_MIN_VALUE = -100;
     private static final int ARRAY_MAX_VALUE = 100;
-    private static final int CHUNK_SIZE = 10;
+    private static final int MIN_CHUNK_SIZE = 10;
+    private static final int DEFAULT_VIRTUAL_LIMIT = 1024;
 
 
     static class ArrayMultiplierTask implements Callable<List<Integer>> {
         private final List<Integer> subList;
         private final int multiplier;
+        private final long sleepNanos;
 
         
         
     
         public ArrayMultiplierTask(List<Integer> subList, int multiplier) {
+            this(subList, multiplier, TimeUnit.MILLISECONDS.toNanos(100));
+        }
+
+        // Імітація блокуючого вводу/виводу іншої тривалості (для бенчмарку з обмеженим часом)
+        public ArrayMultiplierTask(List<Integer> subList, int multiplier, long sleepNanos) {
             this.subList = subList;
             this.multiplier = multiplier;
+            this.sleepNanos = sleepNanos;
         }
 
         @Override
         public List<Integer> call() throws Exception {
             List<Integer> resultChunk = new ArrayList<>();
-            Thread.sleep(100);
+            if (sleepNanos > 0) {
+                Thread.sleep(Duration.ofNanos(sleepNanos));
+            }
 
             for (int number : subList) {
                 resultChunk.add(number * multiplier);
@@ -44,8 +74,643 @@ public class AsyncArrayProcessor {
         }
     }
 
+    // Стратегія виконання: ArrayMultiplierTask блокується, тож на віртуальних потоках
+    // паралелізм не впирається в кількість ядер
+    enum ExecutionMode {
+        PLATFORM_FIXED,
+        VIRTUAL_PER_TASK,
+        VIRTUAL_BOUNDED;
+
+        public ExecutorService create(int platformThreads, int virtualLimit) {
+            switch (this) {
+                case VIRTUAL_PER_TASK:
+                    return Executors.newVirtualThreadPerTaskExecutor();
+                case VIRTUAL_BOUNDED:
+                    return new BoundedVirtualExecutor(virtualLimit);
+                default:
+                    return Executors.newFixedThreadPool(platformThreads);
+            }
+        }
+
+        public int concurrency(int platformThreads, int virtualLimit) {
+            switch (this) {
+                case VIRTUAL_PER_TASK:
+                    return Integer.MAX_VALUE;
+                case VIRTUAL_BOUNDED:
+                    return virtualLimit;
+                default:
+                    return platformThreads;
+            }
+        }
+
+        public static ExecutionMode parse(String value) {
+            switch (value.trim().toLowerCase()) {
+                case "virtual":
+                    return VIRTUAL_PER_TASK;
+                case "bounded":
+                    return VIRTUAL_BOUNDED;
+                case "platform":
+                    return PLATFORM_FIXED;
+                default:
+                    throw new IllegalArgumentException("Невідомий режим виконання: " + value + " (platform, virtual, bounded)");
+            }
+        }
+    }
+
+    // Віртуальний потік на задачу, але одночасно виконується не більше limit задач.
+    // Зайві задачі чекають на семафорі вже у своєму віртуальному потоці, не займаючи носій
+    static class BoundedVirtualExecutor extends AbstractExecutorService {
+        private final ExecutorService delegate = Executors.newVirtualThreadPerTaskExecutor();
+        private final Semaphore limiter;
+
+        public BoundedVirtualExecutor(int limit) {
+            if (limit < 1) {
+                throw new IllegalArgumentException("Ліміт паралельності має бути > 0");
+            }
+            this.limiter = new Semaphore(limit);
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            delegate.execute(() -> {
+                try {
+                    limiter.acquire();
+                } catch (InterruptedException e) {
+                    // shutdownNow або скасування під час очікування: задача не запускається,
+                    // а її Future (якщо це submit) завершується скасуванням, щоб get() не зависав
+                    if (command instanceof Future<?> future) {
+                        future.cancel(false);
+                    }
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                try {
+                    command.run();
+                } finally {
+                    limiter.release();
+                }
+            });
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+    }
+
+    // Порівняння стратегій виконання на блокуючих ArrayMultiplierTask з незмінними 100 мс сну на частину.
+    // Прогін, чия оцінка (хвилі по 100 мс плюс вартість частин, виміряна на малій вибірці) перевищує
+    // ліміт на прогін, не запускається: його рядок позначено "оцінка" і показує екстрапольований час.
+    // Так платформні потоки на великих кількостях частин не зсувають модель навантаження для інших режимів.
+    // Запуск: java AsyncArrayProcessor$ExecutionModeBenchmark [ліміт_секунд_на_прогін]
+    static class ExecutionModeBenchmark {
+        private static final int[] CHUNK_COUNTS = {10, 100, 1_000, 10_000, 100_000, 1_000_000};
+        private static final int ELEMENTS_PER_CHUNK = 10;
+        private static final long TASK_SLEEP_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+        private static final int SAMPLE_CHUNKS = 10_000;
+
+        public static void main(String[] args) throws InterruptedException {
+            int platformThreads = Runtime.getRuntime().availableProcessors();
+            double runLimitNanos = (args.length > 0 ? Double.parseDouble(args[0]) : 5) * 1e9;
+            List<Integer> chunk = generateRandomArray(ELEMENTS_PER_CHUNK, ARRAY_MIN_VALUE, ARRAY_MAX_VALUE);
+            double chunkCostNanos = sampleChunkCost(chunk);
+            System.out.printf("Вартість частини без сну (вибірка %d): %.1f мкс; сон на частину: %d мс; ліміт на прогін: %.1f с%n",
+                    SAMPLE_CHUNKS, chunkCostNanos / 1e3, TimeUnit.NANOSECONDS.toMillis(TASK_SLEEP_NANOS), runLimitNanos / 1e9);
+
+            System.out.printf("%-18s | %10s | %10s | %14s | %10s | %10s | %10s | %s%n",
+                    "РЕЖИМ", "ЧАСТИН", "ЧАС, с", "ЧАСТИН/с", "p50, мс", "p99, мс", "max, мс", "ДЖЕРЕЛО");
+            for (int chunks : CHUNK_COUNTS) {
+                for (ExecutionMode mode : ExecutionMode.values()) {
+                    int concurrency = mode.concurrency(platformThreads, DEFAULT_VIRTUAL_LIMIT);
+                    long waves = (chunks + (long) concurrency - 1) / concurrency;
+                    double estimateNanos = waves * TASK_SLEEP_NANOS + chunks * chunkCostNanos / platformThreads;
+                    if (estimateNanos > runLimitNanos) {
+                        // у хвилі w частини завершуються через ~w * 100 мс після подачі
+                        System.out.printf("%-18s | %10d | %10.3f | %14.0f | %10.1f | %10.1f | %10.1f | %s%n",
+                                mode, chunks, estimateNanos / 1e9, chunks / (estimateNanos / 1e9),
+                                Math.ceil(waves * 0.50) * TASK_SLEEP_NANOS / 1e6, Math.ceil(waves * 0.99) * TASK_SLEEP_NANOS / 1e6,
+                                estimateNanos / 1e6, "оцінка");
+                    } else {
+                        run(mode, chunks, chunk, platformThreads);
+                    }
+                }
+            }
+        }
+
+        // Середній час частини без сну - створення задачі і множення, в одному потоці
+        private static double sampleChunkCost(List<Integer> chunk) {
+            long start = System.nanoTime();
+            int produced = 0;
+            for (int i = 0; i < SAMPLE_CHUNKS; i++) {
+                try {
+                    produced += new ArrayMultiplierTask(chunk, 3, 0).call().size();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return produced == 0 ? 0 : (double) (System.nanoTime() - start) / SAMPLE_CHUNKS;
+        }
+
+        private static void run(ExecutionMode mode, int chunks, List<Integer> chunk, int platformThreads)
+                throws InterruptedException {
+            long[] latencies = new long[chunks];
+            CountDownLatch done = new CountDownLatch(chunks);
+            ExecutorService executor = mode.create(platformThreads, DEFAULT_VIRTUAL_LIMIT);
+            long start = System.nanoTime();
+            for (int i = 0; i < chunks; i++) {
+                int index = i;
+                long submitted = System.nanoTime();
+                ArrayMultiplierTask task = new ArrayMultiplierTask(chunk, 3, TASK_SLEEP_NANOS);
+                executor.execute(() -> {
+                    try {
+                        task.call();
+                    } catch (Exception e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        latencies[index] = System.nanoTime() - submitted;
+                        done.countDown();
+                    }
+                });
+            }
+            done.await();
+            long elapsed = System.nanoTime() - start;
+            executor.shutdown();
+            executor.awaitTermination(60, TimeUnit.SECONDS);
+
+            Arrays.sort(latencies);
+            System.out.printf("%-18s | %10d | %10.3f | %14.0f | %10.1f | %10.1f | %10.1f | %s%n",
+                    mode, chunks, elapsed / 1e9, chunks / (elapsed / 1e9),
+                    percentile(latencies, 0.50) / 1e6, percentile(latencies, 0.99) / 1e6, latencies[chunks - 1] / 1e6, "вимір");
+        }
+
+        private static long percentile(long[] sorted, double p) {
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+        }
+    }
+
+    // Вибирає розмір частини за розміром входу та кількістю ядер, а після перших замірів - за латентністю частин
+    static class ChunkScheduler {
+        private static final int CHUNKS_PER_THREAD = 4;
+        private static final long TARGET_CHUNK_NANOS = 1_000_000;
+        private static final double SMOOTHING = 0.2;
+
+        private final int parallelism;
+        private final int minChunkSize;
+        private final int maxChunkSize;
+        private double nanosPerElement = -1;
+
+        public ChunkScheduler(int parallelism, int minChunkSize, int maxChunkSize) {
+            if (parallelism < 1 || minChunkSize < 1 || maxChunkSize < minChunkSize) {
+                throw new IllegalArgumentException("Некоректні параметри планувальника частин");
+            }
+            this.parallelism = parallelism;
+            this.minChunkSize = minChunkSize;
+            this.maxChunkSize = maxChunkSize;
+        }
+
+        public static ChunkScheduler forAvailableProcessors(int minChunkSize) {
+            return new ChunkScheduler(Runtime.getRuntime().availableProcessors(), minChunkSize, 1 << 20);
+        }
+
+        public synchronized int chunkSizeFor(int length) {
+            int size;
+            if (nanosPerElement > 0) {
+                size = (int) Math.min(maxChunkSize, TARGET_CHUNK_NANOS / nanosPerElement);
+            } else {
+                size = ceilDiv(length, parallelism * CHUNKS_PER_THREAD);
+            }
+            size = Math.max(minChunkSize, Math.min(maxChunkSize, size));
+            // частин має вистачити хоча б на всі потоки
+            return Math.max(1, Math.min(size, ceilDiv(length, parallelism)));
+        }
+
+        public synchronized void recordChunk(int elements, long nanos) {
+            if (elements <= 0) {
+                return;
+            }
+            double sample = (double) nanos / elements;
+            nanosPerElement = nanosPerElement < 0 ? sample : nanosPerElement + SMOOTHING * (sample - nanosPerElement);
+        }
+
+        public <T> Callable<T> measured(Callable<T> task, int elements) {
+            return () -> {
+                long start = System.nanoTime();
+                T result = task.call();
+                recordChunk(elements, System.nanoTime() - start);
+                return result;
+            };
+        }
+
+        private static int ceilDiv(int value, int divisor) {
+            return (int) (((long) value + divisor - 1) / divisor);
+        }
+    }
+
+    static class IndexedChunk<T> {
+        final int index;
+        final T values;
+
+        IndexedChunk(int index, T values) {
+            this.index = index;
+            this.values = values;
+        }
+    }
+
+    // Листові ядра множення. Розширювальне множення - один простий цикл, який C2 і так автовекторизує,
+    // тож окремого "швидкого" варіанта для нього немає. Для multiplyExact швидкий варіант збирає
+    // переповнення в маску замість Math.multiplyExact на кожному елементі; -Dap.kernels=scalar вмикає останній
+    static class MultiplyKernels {
+        static final boolean SCALAR = "scalar".equalsIgnoreCase(System.getProperty("ap.kernels"));
+
+        static void multiplyWidening(int[] source, long[] target, int from, int to, int multiplier) {
+            long m = multiplier;
+            for (int i = from; i < to; i++) {
+                target[i] = source[i] * m;
+            }
+        }
+
+        // Переповнення накопичується в маску замість перевірки на кожному елементі
+        static void multiplyExact(int[] source, int[] target, int from, int to, int multiplier) {
+            if (SCALAR) {
+                multiplyExactScalar(source, target, from, to, multiplier);
+                return;
+            }
+            long m = multiplier;
+            long overflow = 0;
+            for (int i = from; i < to; i++) {
+                long product = source[i] * m;
+                int truncated = (int) product;
+                target[i] = truncated;
+                overflow |= product ^ truncated;
+            }
+            if (overflow != 0) {
+                throw new ArithmeticException("integer overflow");
+            }
+        }
+
+        static void multiplyExactScalar(int[] source, int[] target, int from, int to, int multiplier) {
+            for (int i = from; i < to; i++) {
+                target[i] = Math.multiplyExact(source[i], multiplier);
+            }
+        }
+
+        // Звіряє швидке multiplyExact з поелементним на тих самих даних
+        static boolean crossCheck(int[] source, int multiplier) {
+            int[] fastExact = new int[source.length];
+            int[] scalarExact = new int[source.length];
+            boolean fastOverflow = false;
+            boolean scalarOverflow = false;
+            try {
+                multiplyExact(source, fastExact, 0, source.length, multiplier);
+            } catch (ArithmeticException e) {
+                fastOverflow = true;
+            }
+            try {
+                multiplyExactScalar(source, scalarExact, 0, source.length, multiplier);
+            } catch (ArithmeticException e) {
+                scalarOverflow = true;
+            }
+            return fastOverflow == scalarOverflow && (fastOverflow || Arrays.equals(fastExact, scalarExact));
+        }
+    }
+
+    // Примітивний режим: результат пишеться одразу у спільний вихідний масив за зміщенням частини
+    static class PrimitiveMultiplierTask implements Callable<Integer> {
+        private final int[] source;
+        private final long[] target;
+        private final int from;
+        private final int to;
+        private final int multiplier;
+
+        public PrimitiveMultiplierTask(int[] source, long[] target, int from, int to, int multiplier) {
+            this.source = source;
+            this.target = target;
+            this.from = from;
+            this.to = to;
+            this.multiplier = multiplier;
+        }
+
+        @Override
+        public Integer call() {
+            // int * int завжди вміщується у long, тому переповнення тут неможливе
+            MultiplyKernels.multiplyWidening(source, target, from, to, multiplier);
+            return to - from;
+        }
+    }
+
+    // Варіант з результатом int[]: переповнення не обрізається мовчки, а завершує задачу з ArithmeticException
+    static class ExactMultiplierTask implements Callable<Integer> {
+        private final int[] source;
+        private final int[] target;
+        private final int from;
+        private final int to;
+        private final int multiplier;
+
+        public ExactMultiplierTask(int[] source, int[] target, int from, int to, int multiplier) {
+            this.source = source;
+            this.target = target;
+            this.from = from;
+            this.to = to;
+            this.multiplier = multiplier;
+        }
+
+        @Override
+        public Integer call() {
+            MultiplyKernels.multiplyExact(source, target, from, to, multiplier);
+            return to - from;
+        }
+    }
+
+    public static long[] multiplyPrimitive(int[] source, int multiplier, ChunkScheduler scheduler, ExecutorService executor)
+            throws InterruptedException, ExecutionException {
+        long[] target = new long[source.length];
+        int chunkSize = scheduler.chunkSizeFor(source.length);
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < source.length; i += chunkSize) {
+            int end = Math.min(i + chunkSize, source.length);
+            tasks.add(scheduler.measured(new PrimitiveMultiplierTask(source, target, i, end, multiplier), end - i));
+        }
+        awaitChunks(executor, tasks);
+        return target;
+    }
+
+    public static int[] multiplyPrimitiveExact(int[] source, int multiplier, ChunkScheduler scheduler, ExecutorService executor)
+            throws InterruptedException, ExecutionException {
+        int[] target = new int[source.length];
+        int chunkSize = scheduler.chunkSizeFor(source.length);
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < source.length; i += chunkSize) {
+            int end = Math.min(i + chunkSize, source.length);
+            tasks.add(scheduler.measured(new ExactMultiplierTask(source, target, i, end, multiplier), end - i));
+        }
+        awaitChunks(executor, tasks);
+        return target;
+    }
+
+    // Частини вже лежать на своїх місцях у вихідному масиві, тож "злиття" - це лише очікування завершення.
+    // Результати забираються в порядку готовності, тому перша помилка видна одразу
+    private static int awaitChunks(ExecutorService executor, List<Callable<Integer>> tasks)
+            throws InterruptedException, ExecutionException {
+        CompletionService<Integer> completion = new ExecutorCompletionService<>(executor);
+        List<Future<Integer>> futures = new ArrayList<>(tasks.size());
+        for (Callable<Integer> task : tasks) {
+            futures.add(completion.submit(task));
+        }
+        int processed = 0;
+        try {
+            for (int i = 0; i < tasks.size(); i++) {
+                processed += completion.take().get();
+            }
+        } catch (ExecutionException e) {
+            for (Future<Integer> future : futures) {
+                future.cancel(true);
+            }
+            if (e.getCause() instanceof ArithmeticException) {
+                throw (ArithmeticException) e.getCause();
+            }
+            throw e;
+        }
+        return processed;
+    }
+
+    // Довгоживучий сервіс: один пул на всі виклики, обмежена кількість запитів у роботі
+    // та об'єднання дрібних запитів в одну задачу пулу
+    static class ArrayProcessor implements AutoCloseable {
+        private static final int MAX_BATCH = 256;
+        private static final int QUEUED_TASKS_PER_THREAD = 64;
+        private static final ThreadLocal<ArrayProcessor> WORKER_OF = new ThreadLocal<>();
+
+        private final ThreadPoolExecutor executor;
+        private final ChunkScheduler scheduler;
+        private final Semaphore pendingRequests;
+        private final int batchThreshold;
+        private final ConcurrentLinkedQueue<Request> smallRequests = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean batchScheduled = new AtomicBoolean();
+        private final AtomicLong batches = new AtomicLong();
+        private final Executor completionExecutor;
+
+        private static class Request {
+            final int[] data;
+            final int[] result;
+            final IntUnaryOperator op;
+            final CompletableFuture<int[]> future = new CompletableFuture<>();
+            final AtomicInteger remainingChunks = new AtomicInteger();
+            volatile Throwable failure;
+
+            Request(int[] data, IntUnaryOperator op) {
+                this.data = data;
+                this.result = new int[data.length];
+                this.op = op;
+            }
+        }
+
+        public ArrayProcessor(int threads, int maxPendingRequests, int batchThreshold) {
+            this(threads, maxPendingRequests, batchThreshold, ForkJoinPool.commonPool());
+        }
+
+        // Майбутні результати завершуються на completionExecutor, а не на потоках пулу:
+        // залежна стадія, що сама викликає submit(), не блокує обробника на pendingRequests
+        public ArrayProcessor(int threads, int maxPendingRequests, int batchThreshold, Executor completionExecutor) {
+            if (threads < 1 || maxPendingRequests < 1 || batchThreshold < 0) {
+                throw new IllegalArgumentException("Некоректні параметри ArrayProcessor");
+            }
+            AtomicInteger threadNumber = new AtomicInteger();
+            ThreadFactory threadFactory = r -> {
+                Thread t = new Thread(() -> {
+                    WORKER_OF.set(this);
+                    r.run();
+                }, "array-processor-" + threadNumber.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            };
+            // Кількість запитів у роботі обмежує pendingRequests, а кількість частин у черзі - її ємність:
+            // коли черга повна, викликач чекає на місце, а потік пулу виконує частину сам
+            this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(threads * QUEUED_TASKS_PER_THREAD), threadFactory, this::waitForRoom);
+            this.scheduler = new ChunkScheduler(threads, Math.max(1, batchThreshold), 1 << 20);
+            this.pendingRequests = new Semaphore(maxPendingRequests);
+            this.batchThreshold = batchThreshold;
+            this.completionExecutor = completionExecutor;
+        }
+
+        public static ArrayProcessor withDefaults() {
+            return new ArrayProcessor(Runtime.getRuntime().availableProcessors(), 1024, 4096);
+        }
+
+        // Блокує викликача, поки в роботі вже maxPendingRequests запитів
+        public CompletableFuture<int[]> submit(int[] data, IntUnaryOperator op) throws InterruptedException {
+            pendingRequests.acquire();
+            return enqueue(data, op);
+        }
+
+        public CompletableFuture<int[]> trySubmit(int[] data, IntUnaryOperator op, long timeout, TimeUnit unit)
+                throws InterruptedException {
+            if (!pendingRequests.tryAcquire(timeout, unit)) {
+                throw new RejectedExecutionException("ArrayProcessor перевантажений: вичерпано ліміт запитів");
+            }
+            return enqueue(data, op);
+        }
+
+        public long batchCount() {
+            return batches.get();
+        }
+
+        private CompletableFuture<int[]> enqueue(int[] data, IntUnaryOperator op) {
+            Request request = new Request(data, op);
+            if (data.length <= batchThreshold) {
+                request.remainingChunks.set(1);
+                smallRequests.add(request);
+                if (batchScheduled.compareAndSet(false, true)) {
+                    try {
+                        executor.execute(this::drainBatch);
+                    } catch (RejectedExecutionException e) {
+                        batchScheduled.set(false);
+                        // якщо запит уже забрав інший пакет, він завершиться там
+                        if (smallRequests.remove(request)) {
+                            pendingRequests.release();
+                            throw e;
+                        }
+                    }
+                }
+            } else {
+                int chunkSize = scheduler.chunkSizeFor(data.length);
+                int chunks = (data.length + chunkSize - 1) / chunkSize;
+                request.remainingChunks.set(chunks);
+                int submitted = 0;
+                try {
+                    for (int i = 0; i < data.length; i += chunkSize) {
+                        int from = i;
+                        int to = Math.min(i + chunkSize, data.length);
+                        executor.execute(() -> runChunk(request, from, to));
+                        submitted++;
+                    }
+                } catch (RejectedExecutionException e) {
+                    // частини, що вже в черзі, доробляться, а запит завершиться з помилкою
+                    request.failure = e;
+                    finishChunks(request, chunks - submitted);
+                    throw e;
+                }
+            }
+            return request.future;
+        }
+
+        private void waitForRoom(Runnable task, ThreadPoolExecutor pool) {
+            if (pool.isShutdown()) {
+                throw new RejectedExecutionException("ArrayProcessor закрито");
+            }
+            if (WORKER_OF.get() == this) {
+                // потік пулу не може чекати на власну чергу
+                task.run();
+                return;
+            }
+            try {
+                pool.getQueue().put(task);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException("Очікування місця в черзі перервано", e);
+            }
+        }
+
+        // Пакет малих запитів пишеться в планувальник одним recordChunk, щоб його монітор не стояв на кожному запиті
+        private void drainBatch() {
+            while (true) {
+                batches.incrementAndGet();
+                long start = System.nanoTime();
+                long elements = 0;
+                Request request;
+                int processed = 0;
+                while (processed < MAX_BATCH && (request = smallRequests.poll()) != null) {
+                    process(request, 0, request.data.length);
+                    finishChunks(request, 1);
+                    elements += request.data.length;
+                    processed++;
+                }
+                scheduler.recordChunk((int) Math.min(Integer.MAX_VALUE, elements), System.nanoTime() - start);
+                batchScheduled.set(false);
+                // запит міг прийти між останнім poll() і скиданням прапорця
+                if (smallRequests.isEmpty() || !batchScheduled.compareAndSet(false, true)) {
+                    return;
+                }
+                try {
+                    executor.execute(this::drainBatch);
+                    return;
+                } catch (RejectedExecutionException e) {
+                    // пул закривається: решту черги доробляє цей потік, інакше запити в ній ніколи не завершаться
+                }
+            }
+        }
+
+        private void runChunk(Request request, int from, int to) {
+            long start = System.nanoTime();
+            process(request, from, to);
+            scheduler.recordChunk(to - from, System.nanoTime() - start);
+            finishChunks(request, 1);
+        }
+
+        private static void process(Request request, int from, int to) {
+            try {
+                if (request.failure == null) {
+                    for (int i = from; i < to; i++) {
+                        request.result[i] = request.op.applyAsInt(request.data[i]);
+                    }
+                }
+            } catch (Throwable e) {
+                request.failure = e;
+            }
+        }
+
+        private void finishChunks(Request request, int count) {
+            if (count > 0 && request.remainingChunks.addAndGet(-count) == 0) {
+                pendingRequests.release();
+                Throwable failure = request.failure;
+                completionExecutor.execute(() -> {
+                    if (failure != null) {
+                        request.future.completeExceptionally(failure);
+                    } else {
+                        request.future.complete(request.result);
+                    }
+                });
+            }
+        }
+
+        @Override
+        public void close() {
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(60, TimeUnit.SECONDS)) {
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     public static void main(String[] args) {
         long startTime = System.nanoTime();
+        ExecutionMode mode = args.length > 0 ? ExecutionMode.parse(args[0]) : ExecutionMode.PLATFORM_FIXED;
         Scanner scanner = new Scanner(System.in);
 
         System.out.println("--- Налаштування Обробки Масиву ---");
@@ -61,36 +726,47 @@ public class AsyncArrayProcessor {
         System.out.println("Діапазон елементів: [" + ARRAY_MIN_VALUE + "; " + ARRAY_MAX_VALUE + "]");
         System.out.println("Оригінальний масив (перші 10): " + originalArray.stream().limit(10).collect(Collectors.toList()) + "...");
         
-        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
-        List<Future<List<Integer>>> futures = new ArrayList<>();
-        
-        for (int i = 0; i < arraySize; i += CHUNK_SIZE) {
-            int end = Math.min(i + CHUNK_SIZE, arraySize);
+        System.out.println("Режим виконання: " + mode);
+        ExecutorService executor = mode.create(Runtime.getRuntime().availableProcessors(), DEFAULT_VIRTUAL_LIMIT);
+        ChunkScheduler scheduler = ChunkScheduler.forAvailableProcessors(MIN_CHUNK_SIZE);
+        int chunkSize = scheduler.chunkSizeFor(arraySize);
+        System.out.println("Розмір частини: " + chunkSize);
+
+        CompletionService<IndexedChunk<List<Integer>>> completion = new ExecutorCompletionService<>(executor);
+        int chunkCount = 0;
+        for (int i = 0; i < arraySize; i += chunkSize) {
+            int end = Math.min(i + chunkSize, arraySize);
             List<Integer> subList = originalArray.subList(i, end);
             
             ArrayMultiplierTask task = new ArrayMultiplierTask(subList, multiplier);
-            Future<List<Integer>> future = executor.submit(task);
-            futures.add(future);
+            Callable<List<Integer>> measuredTask = scheduler.measured(task, end - i);
+            int index = chunkCount++;
+            completion.submit(() -> new IndexedChunk<>(index, measuredTask.call()));
         }
 
-       
-        List<Integer> finalResultArray = new CopyOnWriteArrayList<>();
-
+        // Частини приходять у порядку готовності, а складаються в порядку індексів
+        List<List<Integer>> orderedChunks = new ArrayList<>(Collections.nCopies(chunkCount, null));
         int processedChunks = 0;
-        for (Future<List<Integer>> future : futures) {
+        for (int i = 0; i < chunkCount; i++) {
             try {
-                while (!future.isDone()) {
-                    System.out.print(".");
-                    Thread.sleep(50); 
-                }
-                
-                List<Integer> resultChunk = future.get();
-                finalResultArray.addAll(resultChunk);
+                IndexedChunk<List<Integer>> chunk = completion.take().get();
+                orderedChunks.set(chunk.index, chunk.values);
                 processedChunks++;
+                System.out.print(".");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
             } catch (Exception e) {
                 System.err.println("\nПомилка при отриманні результату: " + e.getMessage());
             }
         }
+
+        List<Integer> finalResultArray = new ArrayList<>(arraySize);
+        for (List<Integer> resultChunk : orderedChunks) {
+            if (resultChunk != null) {
+                finalResultArray.addAll(resultChunk);
+            }
+        }
         
         System.out.println("\n--- Результати Обробки ---");
         System.out.println("Кількість оброблених частин: " + processedChunks);
@@ -101,6 +777,51 @@ public class AsyncArrayProcessor {
              System.out.println("Перевірка: " + originalArray.get(originalArray.size()-1) + " * " + multiplier + " = " + finalResultArray.get(finalResultArray.size()-1));
         }
 
+        System.out.println("\n--- Примітивний Режим (int[] -> long[]) ---");
+        try {
+            int[] primitiveArray = originalArray.stream().mapToInt(Integer::intValue).toArray();
+            long[] primitiveResult = multiplyPrimitive(primitiveArray, multiplier,
+                    ChunkScheduler.forAvailableProcessors(MIN_CHUNK_SIZE), executor);
+            // Еталон - точний добуток у long; List<Integer> множить в int і на переповненні обрізається,
+            // тож з ним порівнюються лише ті елементи, де int-добуток ще точний
+            boolean exact = primitiveResult.length == primitiveArray.length;
+            boolean matchesList = primitiveResult.length == finalResultArray.size();
+            int overflowed = 0;
+            for (int i = 0; exact && i < primitiveResult.length; i++) {
+                long product = (long) primitiveArray[i] * multiplier;
+                exact = primitiveResult[i] == product;
+                if ((int) product != product) {
+                    overflowed++;
+                } else if (matchesList) {
+                    matchesList = primitiveResult[i] == finalResultArray.get(i);
+                }
+            }
+            System.out.println("Розмір підсумкового масиву: " + primitiveResult.length);
+            System.out.println("Збігається з точним добутком (long): " + exact);
+            System.out.println("Збігається з результатом List<Integer>: " + matchesList
+                    + (overflowed > 0 ? " (крім " + overflowed + " елементів, де int у List<Integer> переповнився)" : ""));
+            System.out.println("Перевірка ядер множення: " + (MultiplyKernels.crossCheck(primitiveArray, multiplier) ? "OK" : "РОЗБІЖНІСТЬ"));
+        } catch (Exception e) {
+            System.err.println("Помилка примітивної обробки: " + e.getMessage());
+        }
+
+        System.out.println("\n--- Сервісний Режим (ArrayProcessor) ---");
+        try (ArrayProcessor processor = ArrayProcessor.withDefaults()) {
+            int[] primitiveArray = originalArray.stream().mapToInt(Integer::intValue).toArray();
+            int requests = 10_000;
+            long serviceStart = System.nanoTime();
+            List<CompletableFuture<int[]>> results = new ArrayList<>(requests);
+            for (int i = 0; i < requests; i++) {
+                results.add(processor.submit(primitiveArray, x -> x * multiplier));
+            }
+            CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).join();
+            double serviceSeconds = (System.nanoTime() - serviceStart) / 1_000_000_000.0;
+            System.out.printf("Оброблено %d запитів за %.4f с (пакетів: %d)%n", requests, serviceSeconds, processor.batchCount());
+            System.out.println("Перевірка: " + primitiveArray[0] + " * " + multiplier + " = " + results.get(0).join()[0]);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
         executor.shutdown();
         try {
             if (!executor.awaitTermination(60, TimeUnit.SECONDS)) {
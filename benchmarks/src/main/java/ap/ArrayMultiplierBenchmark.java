@@ -0,0 +1,91 @@
+package ap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Поділ на частини в AsyncArrayProcessor: розмір частини дає ChunkScheduler з нижньою межею minChunk.
+// boxedTasks - вихідні ArrayMultiplierTask без імітованого сну, тож міряється саме ціна упаковки,
+// primitive - int[] -> long[] через multiplyPrimitive. Кожен варіант має свій планувальник на весь прогін,
+// щоб адаптивний розмір частини підлаштовувався під заміри попередніх викликів
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArrayMultiplierBenchmark {
+    private static final int MULTIPLIER = 3;
+
+    @Param({"10000", "1000000"})
+    int size;
+
+    @Param({"1", "4"})
+    int threads;
+
+    @Param({"10", "10000"})
+    int minChunk;
+
+    private int[] source;
+    private List<Integer> boxed;
+    private ExecutorService executor;
+    private AsyncArrayProcessor.ChunkScheduler boxedScheduler;
+    private AsyncArrayProcessor.ChunkScheduler primitiveScheduler;
+
+    @Setup
+    public void setUp() {
+        source = new Random(42).ints(size, 0, 100).toArray();
+        boxed = new ArrayList<>(size);
+        for (int value : source) {
+            boxed.add(value);
+        }
+        executor = Executors.newFixedThreadPool(threads);
+        boxedScheduler = new AsyncArrayProcessor.ChunkScheduler(threads, minChunk, 1 << 20);
+        primitiveScheduler = new AsyncArrayProcessor.ChunkScheduler(threads, minChunk, 1 << 20);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public int boxedTasks() throws InterruptedException, ExecutionException {
+        int chunkSize = boxedScheduler.chunkSizeFor(size);
+        List<Callable<List<Integer>>> tasks = new ArrayList<>();
+        for (int i = 0; i < size; i += chunkSize) {
+            int end = Math.min(i + chunkSize, size);
+            tasks.add(boxedScheduler.measured(
+                    new AsyncArrayProcessor.ArrayMultiplierTask(boxed.subList(i, end), MULTIPLIER, 0), end - i));
+        }
+        int total = 0;
+        for (Future<List<Integer>> future : executor.invokeAll(tasks)) {
+            total += future.get().size();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long[] primitive() throws InterruptedException, ExecutionException {
+        return AsyncArrayProcessor.multiplyPrimitive(source, MULTIPLIER, primitiveScheduler, executor);
+    }
+}
@@ -0,0 +1,58 @@
+package ap;
+
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Послідовний calculateFactorial проти FactorialEngine без кешу (кожен виклик рахує заново)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FactorialBenchmark {
+
+    @Param({"1000", "10000", "50000"})
+    int n;
+
+    @Param({"1", "4"})
+    int threads;
+
+    private ForkJoinPool pool;
+    private CompletableFutureTasks.FactorialEngine engine;
+
+    @Setup
+    public void setUp() {
+        pool = new ForkJoinPool(threads);
+        engine = new CompletableFutureTasks.FactorialEngine(pool, 0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public BigInteger sequentialLoop() {
+        return CompletableFutureTasks.calculateFactorial(n);
+    }
+
+    @Benchmark
+    public BigInteger engine() {
+        return engine.factorial(n);
+    }
+}
@@ -0,0 +1,91 @@
+package ap;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Пошук файлів за розширенням на згенерованому дереві: FileSearchTask (java.io.File) проти NioFileScanner.
+// Дерево: у кожному каталозі FILES_PER_DIRECTORY порожніх файлів і FAN_OUT підкаталогів, поки не набереться files
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FileSearchBenchmark {
+    private static final int FILES_PER_DIRECTORY = 50;
+    private static final int FAN_OUT = 4;
+    private static final String[] EXTENSIONS = {"txt", "pdf", "jpg", "java"};
+
+    @Param({"1000", "20000"})
+    int files;
+
+    @Param({"1", "4"})
+    int threads;
+
+    private Path root;
+    private ForkJoinPool pool;
+    private NioFileScanner scanner;
+
+    @Setup
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("ap-file-search-");
+        int created = 0;
+        ArrayDeque<Path> directories = new ArrayDeque<>();
+        directories.add(root);
+        while (created < files) {
+            Path directory = directories.poll();
+            for (int i = 0; i < FILES_PER_DIRECTORY && created < files; i++, created++) {
+                Files.createFile(directory.resolve("file" + i + "." + EXTENSIONS[created % EXTENSIONS.length]));
+            }
+            for (int i = 0; i < FAN_OUT; i++) {
+                directories.add(Files.createDirectory(directory.resolve("dir" + i)));
+            }
+        }
+        pool = new ForkJoinPool(threads);
+        scanner = NioFileScanner.withDefaults(pool);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        pool.shutdown();
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    @Benchmark
+    public int forkJoinFile() {
+        return pool.invoke(new FileSearchTask(root.toFile(), "txt"));
+    }
+
+    @Benchmark
+    public long nioScanner() {
+        return scanner.countByExtension(pool, root, "txt");
+    }
+}
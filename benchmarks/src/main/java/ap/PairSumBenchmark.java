@@ -0,0 +1,70 @@
+package ap;
+
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// ArrayPairSumTask (work stealing) проти ParallelReduction.workDealing на тих самих даних
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PairSumBenchmark {
+
+    @Param({"100000", "10000000"})
+    int size;
+
+    @Param({"1", "4"})
+    int threads;
+
+    private int[] array;
+    private ForkJoinPool pool;
+    private ExecutorService dealer;
+
+    @Setup
+    public void setUp() {
+        array = new Random(42).ints(size, 1, 1000).toArray();
+        pool = new ForkJoinPool(threads);
+        dealer = Executors.newFixedThreadPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+        dealer.shutdown();
+    }
+
+    @Benchmark
+    public long workStealing() {
+        return pool.invoke(new ArrayPairSumTask(array, 0, array.length));
+    }
+
+    @Benchmark
+    public long workDealing() throws InterruptedException, ExecutionException {
+        return ParallelReduction.workDealing(dealer, array, Reductions.pairSum(), threads);
+    }
+
+    // послідовний базовий рівень
+    @Benchmark
+    public long sequential() {
+        return PairSumKernels.pairSum(array, 0, array.length);
+    }
+}
@@ -0,0 +1,79 @@
+package ap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Заїзд/виїзд під конкуренцією: один виклик - threads потоків, кожен робить
+// OPERATIONS_PER_THREAD пар acquireSpot/leaveCar на спільній Parking.
+// Потоки живуть увесь замір, тож їх створення в час не входить
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParkingBenchmark {
+    private static final int OPERATIONS_PER_THREAD = 1000;
+
+    @Param({"1", "16", "256"})
+    int threads;
+
+    @Param({"8", "256"})
+    int capacity;
+
+    @Param({"true", "false"})
+    boolean fair;
+
+    private ParkingSimulation.Parking parking;
+    private ExecutorService executor;
+    private List<Callable<Integer>> cars;
+
+    @Setup
+    public void setUp() {
+        parking = new ParkingSimulation.Parking(capacity, capacity, fair);
+        executor = Executors.newFixedThreadPool(threads);
+        cars = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            cars.add(() -> {
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    parking.acquireSpot();
+                    parking.leaveCar(null);
+                }
+                return OPERATIONS_PER_THREAD;
+            });
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public int acquireRelease() throws InterruptedException, ExecutionException {
+        int total = 0;
+        for (Future<Integer> future : executor.invokeAll(cars)) {
+            total += future.get();
+        }
+        return total;
+    }
+}
@@ -1,67 +1,258 @@
 import java.util.concurrent.Semaphore;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
 
 
 public class ParkingSimulation {
 
     private static final int NUMBER_OF_CARS = 10;
     private static final long SIMULATION_DURATION_MS = 20000; 
+    private static final int LOAD_MAX_IN_FLIGHT = 10_000;
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss");
+    private static final EventLog EVENT_LOG = EventLog.start(1 << 14, 256, System.out);
 
     
+    // Лише кладе подію в кільцевий буфер; час форматує і друкує потік EventLog
     public static void log(String message) {
-        String time = LocalTime.now().format(TIME_FORMATTER);
-        System.out.println(time + " | " + message);
+        EVENT_LOG.publish(System.currentTimeMillis(), message);
+    }
+
+    // Рядок без часу, у тій самій черзі, щоб не перемішатись із подіями
+    public static void print(String line) {
+        EVENT_LOG.publish(EventLog.NO_TIMESTAMP, line);
+    }
+
+    // Дочекатись друку всього, що вже в черзі (перед синхронним виводом звітів)
+    public static void flushLog() {
+        EVENT_LOG.flush();
+    }
+
+
+    // Асинхронний журнал: обмежена багатописьменна черга Д. Вьюкова на кільцевому масиві.
+    // Виробник займає слот одним CAS на tail і публікує його записом номера послідовності;
+    // єдиний споживач забирає події пачками, форматує час (кешуючи рядок у межах секунди)
+    // і друкує пачку одним викликом. При переповненні подія відкидається і рахується -
+    // виробник ніколи не чекає на консоль
+    static class EventLog implements AutoCloseable {
+        static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+        private final int mask;
+        private final int batchSize;
+        private final PrintStream out;
+        private final AtomicLongArray sequences;
+        private final long[] timestamps;
+        private final String[] messages;
+        private final AtomicLong tail = new AtomicLong();
+        private final AtomicLong consumed = new AtomicLong();
+        private final LongAdder dropped = new LongAdder();
+        private final Thread consumer;
+        private volatile boolean running = true;
+        private long head;
+        private long cachedSecond = Long.MIN_VALUE;
+        private String cachedTime = "";
+
+        private EventLog(int capacity, int batchSize, PrintStream out) {
+            if (Integer.bitCount(capacity) != 1) {
+                throw new IllegalArgumentException("Місткість має бути степенем двійки");
+            }
+            this.mask = capacity - 1;
+            this.batchSize = batchSize;
+            this.out = out;
+            this.sequences = new AtomicLongArray(capacity);
+            this.timestamps = new long[capacity];
+            this.messages = new String[capacity];
+            for (int i = 0; i < capacity; i++) {
+                sequences.set(i, i);
+            }
+            this.consumer = new Thread(this::drainLoop, "EventLog");
+            this.consumer.setDaemon(true);
+        }
+
+        static EventLog start(int capacity, int batchSize, PrintStream out) {
+            EventLog log = new EventLog(capacity, batchSize, out);
+            log.consumer.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(log::close, "EventLog-flush"));
+            return log;
+        }
+
+        boolean publish(long timestampMillis, String message) {
+            long position = tail.get();
+            int slot;
+            while (true) {
+                slot = (int) position & mask;
+                long difference = sequences.get(slot) - position;
+                if (difference == 0) {
+                    if (tail.weakCompareAndSetVolatile(position, position + 1)) {
+                        break;
+                    }
+                    position = tail.get();
+                } else if (difference < 0) {
+                    dropped.increment();
+                    return false;
+                } else {
+                    position = tail.get();
+                }
+            }
+            timestamps[slot] = timestampMillis;
+            messages[slot] = message;
+            sequences.setRelease(slot, position + 1);
+            return true;
+        }
+
+        long dropped() {
+            return dropped.sum();
+        }
+
+        void flush() {
+            long target = tail.get();
+            while (consumed.get() < target && consumer.isAlive()) {
+                LockSupport.unpark(consumer);
+                LockSupport.parkNanos(100_000);
+            }
+        }
+
+        @Override
+        public void close() {
+            running = false;
+            LockSupport.unpark(consumer);
+            try {
+                consumer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void drainLoop() {
+            StringBuilder batch = new StringBuilder();
+            while (true) {
+                int taken = 0;
+                while (taken < batchSize) {
+                    int slot = (int) head & mask;
+                    if (sequences.getAcquire(slot) != head + 1) {
+                        break;
+                    }
+                    append(batch, timestamps[slot], messages[slot]);
+                    messages[slot] = null;
+                    sequences.setRelease(slot, head + mask + 1);
+                    head++;
+                    taken++;
+                }
+                if (taken > 0) {
+                    out.print(batch);
+                    out.flush();
+                    batch.setLength(0);
+                    consumed.set(head);
+                } else if (!running) {
+                    return;
+                } else {
+                    LockSupport.parkNanos(1_000_000);
+                }
+            }
+        }
+
+        private void append(StringBuilder batch, long timestampMillis, String message) {
+            if (timestampMillis != NO_TIMESTAMP) {
+                long second = Math.floorDiv(timestampMillis, 1000);
+                if (second != cachedSecond) {
+                    cachedSecond = second;
+                    cachedTime = LocalTime.ofInstant(Instant.ofEpochMilli(timestampMillis), ZoneId.systemDefault())
+                            .format(TIME_FORMATTER);
+                }
+                batch.append(cachedTime).append(" | ");
+            }
+            batch.append(message).append('\n');
+        }
     }
 
 
     static class Parking {
         public static final int DAY_CAPACITY = 5;  
         public static final int NIGHT_CAPACITY = 8; 
+        public static final LocalTime DAY_START = LocalTime.of(6, 0);
+        public static final LocalTime NIGHT_START = LocalTime.of(21, 0);
+
+        private final int dayCapacity;
+        private final int nightCapacity;
+        private final LocalTime dayStart;
+        private final LocalTime nightStart;
+        private final PermitPool spots;
+        private final LongAdder waitingCars = new LongAdder();
+        private final LongAdder parkedCars = new LongAdder();
+        private final LongAdder leftCars = new LongAdder();
+
+        public Parking() {
+            this(DAY_CAPACITY, NIGHT_CAPACITY);
+        }
 
-        private final Semaphore semaphore = new Semaphore(NIGHT_CAPACITY, true); 
-        private final AtomicInteger occupiedSpots = new AtomicInteger(0);
-        private final Object capacityLock = new Object();
+        public Parking(int dayCapacity, int nightCapacity) {
+            this(dayCapacity, nightCapacity, true);
+        }
+
+        public Parking(int dayCapacity, int nightCapacity, boolean fair) {
+            this(dayCapacity, nightCapacity, DAY_START, NIGHT_START, fair);
+        }
+
+        // Власний розклад: денний ліміт діє з dayStart до nightStart (може переходити через північ)
+        public Parking(int dayCapacity, int nightCapacity, LocalTime dayStart, LocalTime nightStart, boolean fair) {
+            this.dayCapacity = dayCapacity;
+            this.nightCapacity = nightCapacity;
+            this.dayStart = dayStart;
+            this.nightStart = nightStart;
+            this.spots = new PermitPool(nightCapacity, fair);
+        }
 
         public int getCurrentCapacity(LocalTime currentTime) {
-            LocalTime dayStart = LocalTime.of(6, 0);
-            LocalTime nightStart = LocalTime.of(21, 0);
-            boolean isDay = (currentTime.isAfter(dayStart) || currentTime.equals(dayStart)) && currentTime.isBefore(nightStart);
-            return isDay ? DAY_CAPACITY : NIGHT_CAPACITY;
+            boolean afterDayStart = currentTime.isAfter(dayStart) || currentTime.equals(dayStart);
+            boolean beforeNightStart = currentTime.isBefore(nightStart);
+            boolean isDay = dayStart.isBefore(nightStart)
+                    ? afterDayStart && beforeNightStart
+                    : afterDayStart || beforeNightStart;
+            return isDay ? dayCapacity : nightCapacity;
+        }
+
+        public LocalTime[] switchTimes() {
+            return new LocalTime[]{dayStart, nightStart};
+        }
+
+        public boolean isDayCapacity(int capacity) {
+            return capacity == dayCapacity;
         }
 
         
+        // Ліміт і зайнятість змінюються одним CAS, тож блокування не потрібне;
+        // зайняті місця понад новий ліміт не звільняються примусово - нові авто просто чекають
         public void updateCapacity() {
-            synchronized (capacityLock) {
-                LocalTime now = LocalTime.now();
-                int currentCapacity = getCurrentCapacity(now);
-                int currentOccupied = occupiedSpots.get();
-                int totalPermits = currentOccupied + semaphore.availablePermits();
-                
-                if (totalPermits != currentCapacity) {
-                    int diff = currentCapacity - totalPermits; 
-
-                    if (diff < 0) {
-                        int permitsToDrain = totalPermits - currentCapacity;
-                        if (semaphore.availablePermits() >= permitsToDrain) {
-                             semaphore.acquireUninterruptibly(permitsToDrain);
-                        } else {
-                            semaphore.drainPermits();
-                            int permitsToRestore = currentCapacity - currentOccupied;
-                            if (permitsToRestore > 0) {
-                                semaphore.release(permitsToRestore);
-                            }
-                        }
-                        log(" ЗМІНА ЛІМІТУ: **ДЕНЬ** (" + currentCapacity + " місць).");
-                    } else if (diff > 0) {
-                        semaphore.release(diff); 
-                        log("ЗМІНА ЛІМІТУ: **НІЧ** (" + currentCapacity + " місць).");
-                    }
-                }
+            int currentCapacity = getCurrentCapacity(LocalTime.now());
+            int previousCapacity = spots.setLimit(currentCapacity);
+
+            if (currentCapacity < previousCapacity) {
+                log(" ЗМІНА ЛІМІТУ: **ДЕНЬ** (" + currentCapacity + " місць).");
+            } else if (currentCapacity > previousCapacity) {
+                log("ЗМІНА ЛІМІТУ: **НІЧ** (" + currentCapacity + " місць).");
             }
         }
 
@@ -69,8 +260,7 @@ public class ParkingSimulation {
      
         public void parkCar(String carName) throws InterruptedException {
             try {
-                semaphore.acquire(); 
-                occupiedSpots.incrementAndGet();
+                acquireSpot();
                 long parkingTime = (long) (Math.random() * 5000) + 1000;
                 Thread.sleep(parkingTime); 
             } catch (InterruptedException e) {
@@ -79,10 +269,407 @@ public class ParkingSimulation {
             }
         }
 
+        // Лічильники стану авто оновлюють самі авто в acquire/leave, тож знімок Monitor - O(1)
+        public void acquireSpot() throws InterruptedException {
+            waitingCars.increment();
+            try {
+                spots.acquire(1);
+            } finally {
+                waitingCars.decrement();
+            }
+            parkedCars.increment();
+        }
+
+        public boolean tryAcquireSpot() {
+            if (!spots.tryAcquire(1)) {
+                return false;
+            }
+            parkedCars.increment();
+            return true;
+        }
+
+        public boolean tryAcquireSpot(long timeout, TimeUnit unit) throws InterruptedException {
+            waitingCars.increment();
+            boolean acquired;
+            try {
+                acquired = spots.tryAcquire(1, timeout, unit);
+            } finally {
+                waitingCars.decrement();
+            }
+            if (acquired) {
+                parkedCars.increment();
+            }
+            return acquired;
+        }
+
      
         public void leaveCar(String carName) {
-            semaphore.release();
-            occupiedSpots.decrementAndGet();
+            spots.release(1);
+            parkedCars.decrement();
+            leftCars.increment();
+        }
+
+        public long waitingCars() {
+            return waitingCars.sum();
+        }
+
+        public long parkedCars() {
+            return parkedCars.sum();
+        }
+
+        public long leftCars() {
+            return leftCars.sum();
+        }
+
+        public int occupied() {
+            return spots.occupied();
+        }
+
+        public int available() {
+            return spots.available();
+        }
+
+        public int limit() {
+            return spots.limit();
+        }
+    }
+
+
+    // Мережа незалежних парковок-шардів. Авто отримує "домашній" шард за хешем номера або за
+    // навантаженням (кращий із двох випадкових шардів), а якщо там повно - без очікування пробує
+    // наступні по колу. Глобального блокування немає: кожна спроба - CAS у PermitPool одного шарду.
+    // Якщо повно всюди, авто чекає в черзі домашнього шарду
+    static class ParkingNetwork {
+        enum Routing { HASH, LEAST_LOADED }
+
+        private final Parking[] shards;
+        private final Routing routing;
+        private final LongAdder[] admitted;
+        private final LongAdder[] overflowIn;
+        private final LongAdder[] occupiedSamples;
+        private final LongAdder[] limitSamples;
+        private final LongAdder overflowed = new LongAdder();
+        private final LongAdder waitedForHome = new LongAdder();
+
+        ParkingNetwork(List<Parking> shards, Routing routing) {
+            this.shards = shards.toArray(new Parking[0]);
+            this.routing = routing;
+            this.admitted = newAdders(this.shards.length);
+            this.overflowIn = newAdders(this.shards.length);
+            this.occupiedSamples = newAdders(this.shards.length);
+            this.limitSamples = newAdders(this.shards.length);
+        }
+
+        private static LongAdder[] newAdders(int count) {
+            LongAdder[] adders = new LongAdder[count];
+            for (int i = 0; i < count; i++) {
+                adders[i] = new LongAdder();
+            }
+            return adders;
+        }
+
+        int shardCount() {
+            return shards.length;
+        }
+
+        // Повертає індекс шарду, де авто стало; його треба передати в leave
+        int park(long carId) throws InterruptedException {
+            int home = homeShard(carId);
+            for (int step = 0; step < shards.length; step++) {
+                int shard = (home + step) % shards.length;
+                if (shards[shard].tryAcquireSpot()) {
+                    admitted[shard].increment();
+                    if (step > 0) {
+                        overflowed.increment();
+                        overflowIn[shard].increment();
+                    }
+                    return shard;
+                }
+            }
+            waitedForHome.increment();
+            shards[home].acquireSpot();
+            admitted[home].increment();
+            return home;
+        }
+
+        void leave(int shard) {
+            shards[shard].leaveCar(null);
+        }
+
+        void updateCapacity() {
+            for (Parking shard : shards) {
+                shard.updateCapacity();
+            }
+        }
+
+        private int homeShard(long carId) {
+            if (routing == Routing.HASH) {
+                long mixed = carId * 0x9E3779B97F4A7C15L;
+                return (int) Math.floorMod(mixed ^ (mixed >>> 32), (long) shards.length);
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int first = random.nextInt(shards.length);
+            int second = random.nextInt(shards.length);
+            return shards[first].available() >= shards[second].available() ? first : second;
+        }
+
+        // Знімок заповненості для середньої утилізації; викликається періодично
+        void sampleUtilization() {
+            for (int i = 0; i < shards.length; i++) {
+                occupiedSamples[i].add(shards[i].occupied());
+                limitSamples[i].add(shards[i].limit());
+            }
+        }
+
+        double overflowRate() {
+            long total = 0;
+            for (LongAdder count : admitted) {
+                total += count.sum();
+            }
+            return total == 0 ? 0 : (double) overflowed.sum() / total;
+        }
+
+        void report() {
+            flushLog();
+            System.out.printf("| %-6s | %-12s | %-14s | %-16s | %-14s |\n", "ШАРД", "ЛІМІТ", "ЗАЇХАЛО", "З ПЕРЕПОВНЕННЯ", "УТИЛІЗАЦІЯ, %");
+            System.out.println("--------------------------------------------------------------------------");
+            for (int i = 0; i < shards.length; i++) {
+                long limits = limitSamples[i].sum();
+                double utilization = limits == 0 ? 0 : 100.0 * occupiedSamples[i].sum() / limits;
+                System.out.printf("| %-6d | %-12d | %-14d | %-16d | %-14.1f |\n",
+                        i, shards[i].limit(), admitted[i].sum(), overflowIn[i].sum(), utilization);
+            }
+            System.out.printf("Переповнення: %.2f%% заїздів, чекали домашній шард: %d\n",
+                    100 * overflowRate(), waitedForHome.sum());
+        }
+    }
+
+    // Пропускна здатність заїздів залежно від кількості шардів при однаковій загальній місткості.
+    // Запуск: java ParkingSimulation$ParkingNetworkBenchmark [загальна місткість] [потоків] [мс на замір] [стоянка, мкс] [hash|load]
+    static class ParkingNetworkBenchmark {
+        private static final int[] SHARDS = {1, 2, 4, 8, 16};
+
+        public static void main(String[] args) throws InterruptedException {
+            int totalCapacity = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+            int threads = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+            long durationMs = args.length > 2 ? Long.parseLong(args[2]) : 1000;
+            long holdNanos = (args.length > 3 ? Long.parseLong(args[3]) : 50) * 1000;
+            ParkingNetwork.Routing routing = args.length > 4 && args[4].equals("hash")
+                    ? ParkingNetwork.Routing.HASH : ParkingNetwork.Routing.LEAST_LOADED;
+
+            System.out.printf("| %-6s | %-20s | %-16s |\n", "ШАРДІВ", "ЗАЇЗДІВ/С", "ПЕРЕПОВНЕННЯ, %");
+            ParkingNetwork last = null;
+            for (int shardCount : SHARDS) {
+                List<Parking> shards = new ArrayList<>();
+                for (int i = 0; i < shardCount; i++) {
+                    int capacity = Math.max(1, totalCapacity / shardCount);
+                    // зсунутий розклад, щоб шарди не перемикались одночасно
+                    LocalTime dayStart = Parking.DAY_START.plusMinutes(15L * i);
+                    shards.add(new Parking(capacity, capacity, dayStart, Parking.NIGHT_START, false));
+                }
+                ParkingNetwork network = new ParkingNetwork(shards, routing);
+                network.updateCapacity();
+                double rate = measure(network, threads, durationMs, holdNanos);
+                flushLog();
+                System.out.printf("| %-6d | %-20.0f | %-16.2f |\n", shardCount, rate, 100 * network.overflowRate());
+                last = network;
+            }
+            System.out.println("\nРозподіл для " + SHARDS[SHARDS.length - 1] + " шардів:");
+            last.report();
+        }
+
+        private static double measure(ParkingNetwork network, int threads, long durationMs, long holdNanos) throws InterruptedException {
+            LongAdder parked = new LongAdder();
+            CountDownLatch go = new CountDownLatch(1);
+            long[] deadline = new long[1];
+            List<Thread> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long firstCar = (long) t << 32;
+                Thread worker = new Thread(() -> {
+                    long car = firstCar;
+                    try {
+                        go.await();
+                        while (System.nanoTime() < deadline[0]) {
+                            int shard = network.park(car++);
+                            LockSupport.parkNanos(holdNanos);
+                            network.leave(shard);
+                            parked.increment();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                workers.add(worker);
+                worker.start();
+            }
+            // відлік починається, коли всі потоки вже створені
+            long start = System.nanoTime();
+            deadline[0] = start + durationMs * 1_000_000;
+            go.countDown();
+            while (System.nanoTime() < deadline[0]) {
+                network.sampleUtilization();
+                Thread.sleep(10);
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            return parked.sum() / ((System.nanoTime() - start) / 1e9);
+        }
+    }
+
+
+    // Пул дозволів зі змінним лімітом: ліміт (старші 32 біти) і зайнятість (молодші 32 біти)
+    // лежать в одному AtomicLong, тож захоплення, звільнення і зміна ліміту - один CAS,
+    // а "зайнято + вільно" завжди узгоджені. Потоки, яким не вистачило дозволів, стоять
+    // у черзі.
+    //   fair     - новий потік не обганяє чергу, дозволи дістаються лише голові, тож будиться лише вона;
+    //   non-fair - спершу спроба без черги (швидкий шлях); будяться всі, кому вистачає вільних дозволів,
+    //              тож голова, що чекає на кілька дозволів, не блокує менші запити за нею.
+    static class PermitPool {
+        private final AtomicLong state;
+        private final boolean fair;
+        private final ConcurrentLinkedQueue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+        private record Waiter(Thread thread, int permits) {}
+
+        PermitPool(int limit, boolean fair) {
+            this.state = new AtomicLong(pack(limit, 0));
+            this.fair = fair;
+        }
+
+        private static long pack(int limit, int occupied) {
+            return ((long) limit << 32) | (occupied & 0xFFFFFFFFL);
+        }
+
+        private static int limitOf(long packed) {
+            return (int) (packed >>> 32);
+        }
+
+        private static int occupiedOf(long packed) {
+            return (int) packed;
+        }
+
+        public int limit() {
+            return limitOf(state.get());
+        }
+
+        public int occupied() {
+            return occupiedOf(state.get());
+        }
+
+        public int available() {
+            long packed = state.get();
+            return Math.max(0, limitOf(packed) - occupiedOf(packed));
+        }
+
+        // Без очікування; у fair-режимі не обганяє тих, хто вже в черзі
+        public boolean tryAcquire(int permits) {
+            return (!fair || waiters.isEmpty()) && grab(permits);
+        }
+
+        public void acquire(int permits) throws InterruptedException {
+            acquire(permits, false, 0L);
+        }
+
+        public boolean tryAcquire(int permits, long timeout, TimeUnit unit) throws InterruptedException {
+            return acquire(permits, true, System.nanoTime() + unit.toNanos(timeout));
+        }
+
+        public void release(int permits) {
+            long packed;
+            do {
+                packed = state.get();
+                if (occupiedOf(packed) < permits) {
+                    throw new IllegalStateException("Звільнено більше дозволів, ніж захоплено");
+                }
+            } while (!state.compareAndSet(packed, pack(limitOf(packed), occupiedOf(packed) - permits)));
+            signalWaiters();
+        }
+
+        // Повертає попередній ліміт
+        public int setLimit(int newLimit) {
+            if (newLimit < 0) {
+                throw new IllegalArgumentException("Ліміт не може бути від'ємним: " + newLimit);
+            }
+            long packed;
+            do {
+                packed = state.get();
+            } while (!state.compareAndSet(packed, pack(newLimit, occupiedOf(packed))));
+            if (newLimit > limitOf(packed)) {
+                signalWaiters();
+            }
+            return limitOf(packed);
+        }
+
+        private boolean grab(int permits) {
+            while (true) {
+                long packed = state.get();
+                int occupied = occupiedOf(packed);
+                if (occupied + permits > limitOf(packed)) {
+                    return false;
+                }
+                if (state.compareAndSet(packed, pack(limitOf(packed), occupied + permits))) {
+                    return true;
+                }
+            }
+        }
+
+        private boolean acquire(int permits, boolean timed, long deadline) throws InterruptedException {
+            if (permits <= 0) {
+                throw new IllegalArgumentException("permits має бути > 0");
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (tryAcquire(permits)) {
+                return true;
+            }
+            Waiter current = new Waiter(Thread.currentThread(), permits);
+            waiters.add(current);
+            try {
+                while (true) {
+                    // перевірка після додавання в чергу: звільнення між ними нас уже побачить і розбудить
+                    if ((!fair || waiters.peek() == current) && grab(permits)) {
+                        return true;
+                    }
+                    if (timed) {
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            return false;
+                        }
+                        LockSupport.parkNanos(this, remaining);
+                    } else {
+                        LockSupport.park(this);
+                    }
+                    if (Thread.interrupted()) {
+                        throw new InterruptedException();
+                    }
+                }
+            } finally {
+                waiters.remove(current);
+                // наступний у черзі міг чекати саме на нашу чергу або на залишок дозволів
+                signalWaiters();
+            }
+        }
+
+        private void signalWaiters() {
+            if (fair) {
+                Waiter head = waiters.peek();
+                if (head != null) {
+                    LockSupport.unpark(head.thread());
+                }
+                return;
+            }
+            int available = available();
+            for (Waiter waiter : waiters) {
+                if (available <= 0) {
+                    break;
+                }
+                if (waiter.permits() <= available) {
+                    LockSupport.unpark(waiter.thread());
+                    available -= waiter.permits();
+                }
+            }
         }
     }
 
@@ -141,12 +728,10 @@ public class ParkingSimulation {
 
     static class Monitor implements Runnable {
         private final Parking parking;
-        private final List<Thread> carThreads;
         private volatile boolean running = true;
 
-        public Monitor(Parking parking, List<Thread> carThreads) {
+        public Monitor(Parking parking) {
             this.parking = parking;
-            this.carThreads = carThreads;
         }
         
         public void stop() { this.running = false; }
@@ -158,43 +743,27 @@ public class ParkingSimulation {
                     Thread.sleep(1500); 
                     
                     int maxCapacity = parking.getCurrentCapacity(LocalTime.now());
-                    int occupied = parking.occupiedSpots.get();
-                    int available = parking.semaphore.availablePermits();
+                    int occupied = parking.occupied();
+                    int available = parking.available();
                     String time = LocalTime.now().format(TIME_FORMATTER);
 
-                    System.out.println("\n\n============================================ СТАН ПАРКОВКИ (" + time + ") ============================================");
-                    
-                    System.out.printf("| %-10s | %-12s | %-12s | %-12s |\n", "ТИП ЧАСУ", "МАКС. МIСЦЬ", "ЗАЙНЯТО", "ВІЛЬНО");
-                    System.out.println("--------------------------------------------------------------------------");
-                    System.out.printf("| %-10s | %-12d | %-12d | %-12d |\n", 
-                                      maxCapacity == Parking.DAY_CAPACITY ? " ДЕНЬ" : "НІЧ", 
+                    // один знімок лічильників - незалежно від кількості авто, одним записом у журнал
+                    StringBuilder table = new StringBuilder();
+                    table.append("\n\n============================================ СТАН ПАРКОВКИ (").append(time).append(") ============================================\n");
+                    table.append(String.format("| %-10s | %-12s | %-12s | %-12s |\n", "ТИП ЧАСУ", "МАКС. МIСЦЬ", "ЗАЙНЯТО", "ВІЛЬНО"));
+                    table.append("--------------------------------------------------------------------------\n");
+                    table.append(String.format("| %-10s | %-12d | %-12d | %-12d |\n", 
+                                      parking.isDayCapacity(maxCapacity) ? " ДЕНЬ" : "НІЧ", 
                                       maxCapacity, 
                                       occupied, 
-                                      available);
-                    System.out.println("==========================================================================");
-
-                    System.out.printf("| %-15s | %-18s | %-20s |\n", "АВТОМОБIЛЬ", "СТАТУС (ЛЮДСЬК.)", "СТАН ПОТОКУ (Java)");
-                    System.out.println("--------------------------------------------------------------------------");
-
-                    for (Thread t : carThreads) {
-                        if (t.isAlive()) {
-                            String carStatus;
-                            Thread.State state = t.getState();
-                            
-                            if (state == Thread.State.TIMED_WAITING) {
-                                carStatus = "Паркується (Sleep)";
-                            } else if (state == Thread.State.WAITING || state == Thread.State.BLOCKED) {
-                                carStatus = "Очікує мiсця (Queue)";
-                            } else if (state == Thread.State.RUNNABLE) {
-                                carStatus = "Виконується (Drive/Leave)";
-                            } else {
-                                carStatus = "Завершено/Неактивний";
-                            }
-                            
-                            System.out.printf("| %-15s | %-18s | %-20s |\n", t.getName(), carStatus, state);
-                        }
-                    }
-                    System.out.println("==========================================================================");
+                                      available));
+                    table.append("==========================================================================\n");
+                    table.append(String.format("| %-12s | %-12s | %-12s | %-18s |\n", "ОЧІКУЮТЬ", "СТОЯТЬ", "ПОЇХАЛИ", "ВТРАЧЕНО ЗАПИСІВ"));
+                    table.append("--------------------------------------------------------------------------\n");
+                    table.append(String.format("| %-12d | %-12d | %-12d | %-18d |\n",
+                                      parking.waitingCars(), parking.parkedCars(), parking.leftCars(), EVENT_LOG.dropped()));
+                    table.append("==========================================================================");
+                    print(table.toString());
 
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
@@ -205,12 +774,433 @@ public class ParkingSimulation {
     }
 
 
-    public static void main(String[] args) {
-        System.out.println("==================================================================================================================================");
-        System.out.println(" СИМУЛЯЦІЯ ПАРКУВАННЯ ");
-        System.out.println("----------------------------------------------------------------------------------------------------------------------------------");
+    // Прибуття авто для режиму навантаження: момент від старту і тривалість стоянки, у наносекундах
+    record Arrival(long atNanos, long parkNanos) {}
+
+    // Джерело прибуттів читається потоково, тож пам'ять не залежить від кількості авто
+    interface ArrivalProcess extends AutoCloseable {
+        // null - прибуття скінчились
+        Arrival next();
+
+        @Override
+        default void close() {
+        }
+    }
+
+    // Пуассонівський потік: експоненційні інтервали з інтенсивністю ratePerSecond,
+    // тривалість стоянки - теж експоненційна із середнім meanParkNanos
+    static class PoissonArrivals implements ArrivalProcess {
+        private final long cars;
+        private final double meanGapNanos;
+        private final double meanParkNanos;
+        private final SplittableRandom random;
+        private long issued;
+        private double clockNanos;
+
+        PoissonArrivals(long cars, double ratePerSecond, double meanParkNanos, long seed) {
+            this.cars = cars;
+            this.meanGapNanos = 1e9 / ratePerSecond;
+            this.meanParkNanos = meanParkNanos;
+            this.random = new SplittableRandom(seed);
+        }
+
+        @Override
+        public Arrival next() {
+            if (issued++ >= cars) {
+                return null;
+            }
+            clockNanos += exponential(meanGapNanos);
+            return new Arrival((long) clockNanos, (long) exponential(meanParkNanos));
+        }
+
+        private double exponential(double mean) {
+            return -mean * Math.log(1.0 - random.nextDouble());
+        }
+    }
+
+    // Відтворення трасування: рядок "момент_мс [тривалість_мс]", '#' - коментар.
+    // Якщо тривалості немає, береться defaultParkNanos
+    static class TraceArrivals implements ArrivalProcess {
+        private final BufferedReader reader;
+        private final long defaultParkNanos;
+
+        TraceArrivals(Path trace, long defaultParkNanos) throws IOException {
+            this.reader = Files.newBufferedReader(trace);
+            this.defaultParkNanos = defaultParkNanos;
+        }
+
+        @Override
+        public Arrival next() {
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (line.isEmpty() || line.startsWith("#")) {
+                        continue;
+                    }
+                    String[] fields = line.split("[\\s,;]+");
+                    long at = (long) (Double.parseDouble(fields[0]) * 1_000_000);
+                    long park = fields.length > 1 ? (long) (Double.parseDouble(fields[1]) * 1_000_000) : defaultParkNanos;
+                    return new Arrival(at, park);
+                }
+                return null;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    // Гістограма очікування місця: степені двійки мікросекунд по 8 кошиків (похибка <= 1/8), без блокувань
+    static class WaitHistogram {
+        private static final int SUB_BITS = 3;
+        private static final int SUB = 1 << SUB_BITS;
+
+        private final AtomicLongArray counts = new AtomicLongArray((64 - SUB_BITS + 1) * SUB);
+        private final LongAdder total = new LongAdder();
+
+        void record(long nanos) {
+            long micros = Math.max(0, nanos / 1000);
+            int index;
+            if (micros < SUB) {
+                index = (int) micros;
+            } else {
+                int exponent = 63 - Long.numberOfLeadingZeros(micros);
+                index = (exponent - SUB_BITS + 1) * SUB + (int) (micros >>> (exponent - SUB_BITS)) % SUB;
+            }
+            counts.incrementAndGet(index);
+            total.increment();
+        }
+
+        // верхня межа кошика, мкс
+        long percentileMicros(double p) {
+            long rank = (long) Math.ceil(p * total.sum());
+            long seen = 0;
+            for (int i = 0; i < counts.length(); i++) {
+                seen += counts.get(i);
+                if (seen >= Math.max(1, rank)) {
+                    if (i < SUB) {
+                        return i;
+                    }
+                    int shift = i / SUB - 1;
+                    return ((long) (SUB + i % SUB) << shift) + (1L << shift) - 1;
+                }
+            }
+            return 0;
+        }
+    }
+
+    // Режим навантаження: кожне авто - віртуальний потік, що живе лише від прибуття до виїзду.
+    // Диспетчер запускає авто за розкладом ArrivalProcess, але тримає не більше maxInFlight живих
+    // потоків; очікування рахується від запланованого моменту прибуття, тож затримка диспетчера
+    // теж потрапляє в латентність. Список потоків не зберігається - пам'ять пласка
+    static class LoadTest {
+        private final Parking parking;
+        private final int maxInFlight;
+        private final WaitHistogram waits = new WaitHistogram();
+        private final LongAdder admitted = new LongAdder();
+
+        LoadTest(Parking parking, int maxInFlight) {
+            this.parking = parking;
+            this.maxInFlight = maxInFlight;
+        }
+
+        void run(ArrivalProcess arrivals) throws InterruptedException {
+            Semaphore inFlight = new Semaphore(maxInFlight);
+            long start = System.nanoTime();
+            long nextReport = start + 1_000_000_000L;
+            long dispatched = 0;
+            try (arrivals; ExecutorService cars = Executors.newVirtualThreadPerTaskExecutor()) {
+                Arrival arrival;
+                while ((arrival = arrivals.next()) != null) {
+                    long scheduled = start + arrival.atNanos();
+                    long delay = scheduled - System.nanoTime();
+                    if (delay > 0) {
+                        LockSupport.parkNanos(delay);
+                    }
+                    inFlight.acquire();
+                    long parkNanos = arrival.parkNanos();
+                    cars.execute(() -> {
+                        try {
+                            parking.acquireSpot();
+                            waits.record(System.nanoTime() - scheduled);
+                            admitted.increment();
+                            try {
+                                Thread.sleep(Duration.ofNanos(parkNanos));
+                            } finally {
+                                parking.leaveCar(null);
+                            }
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                    dispatched++;
+                    if (System.nanoTime() >= nextReport) {
+                        nextReport += 1_000_000_000L;
+                        log("Навантаження: відправлено " + dispatched + ", заїхало " + admitted.sum()
+                                + ", живих авто " + (maxInFlight - inFlight.availablePermits()));
+                    }
+                }
+            }
+            report(dispatched, System.nanoTime() - start);
+        }
+
+        private void report(long dispatched, long elapsedNanos) {
+            double seconds = elapsedNanos / 1e9;
+            flushLog();
+            System.out.println("==========================================================================");
+            System.out.printf("| %-28s | %-39d |\n", "Авто відправлено", dispatched);
+            System.out.printf("| %-28s | %-39d |\n", "Авто заїхало", admitted.sum());
+            System.out.printf("| %-28s | %-39.3f |\n", "Час, с", seconds);
+            System.out.printf("| %-28s | %-39.0f |\n", "Пропускна здатність, авто/с", admitted.sum() / seconds);
+            System.out.printf("| %-28s | %-39d |\n", "Очікування p50, мкс", waits.percentileMicros(0.50));
+            System.out.printf("| %-28s | %-39d |\n", "Очікування p99, мкс", waits.percentileMicros(0.99));
+            System.out.println("==========================================================================");
+        }
+    }
+
+    // Захоплення/звільнення місць під конкуренцією: PermitPool проти Semaphore, обидва в обох режимах.
+    // Запуск: java ParkingSimulation$PermitPoolBenchmark [місць] [операцій на потік]
+    static class PermitPoolBenchmark {
+        private static final int[] THREADS = {4, 64, 256};
+
+        public static void main(String[] args) throws InterruptedException {
+            int capacity = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+            int operations = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+            System.out.printf("| %-8s | %-22s | %-22s | %-22s | %-22s |\n",
+                    "ПОТОКІВ", "Semaphore fair, оп/с", "Semaphore, оп/с", "PermitPool fair, оп/с", "PermitPool, оп/с");
+            for (int threads : THREADS) {
+                Semaphore fairSemaphore = new Semaphore(capacity, true);
+                Semaphore semaphore = new Semaphore(capacity, false);
+                PermitPool fairPool = new PermitPool(capacity, true);
+                PermitPool pool = new PermitPool(capacity, false);
+                System.out.printf("| %-8d | %-22.0f | %-22.0f | %-22.0f | %-22.0f |\n", threads,
+                        measure(threads, operations, fairSemaphore::acquire, fairSemaphore::release),
+                        measure(threads, operations, semaphore::acquire, semaphore::release),
+                        measure(threads, operations, () -> fairPool.acquire(1), () -> fairPool.release(1)),
+                        measure(threads, operations, () -> pool.acquire(1), () -> pool.release(1)));
+            }
+        }
+
+        private static double measure(int threads, int operations, Acquire acquire, Runnable release)
+                throws InterruptedException {
+            List<Thread> workers = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                Thread worker = new Thread(() -> {
+                    try {
+                        for (int i = 0; i < operations; i++) {
+                            acquire.acquire();
+                            release.run();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                workers.add(worker);
+                worker.start();
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            return (double) threads * operations / ((System.nanoTime() - start) / 1e9);
+        }
+
+        interface Acquire {
+            void acquire() throws InterruptedException;
+        }
+    }
+
+    // Дискретно-подійна симуляція з віртуальним годинником: прибуття, виїзди і зміни ліміту о 06:00/21:00
+    // стоять у черзі з пріоритетом за часом і обробляються в одному потоці без жодного sleep.
+    // Ліміт береться з Parking.getCurrentCapacity, тож семантика та сама, що й у реальному часі:
+    // зменшення ліміту не виганяє авто, а лише не пускає нові, поки зайнятих не стане менше.
+    // Прибуття тягнуться з ArrivalProcess по одному, тож черга подій не більша за ліміт + 2
+    static class SimulatedParking {
+        private static final long NANOS_PER_DAY = 86_400_000_000_000L;
+
+        private enum EventType { CAPACITY_CHANGE, DEPARTURE, ARRIVAL }
+
+        // при рівному часі спершу зміна ліміту, потім виїзди, потім прибуття; далі - порядок додавання
+        private record Event(long at, EventType type, long sequence, long parkNanos) implements Comparable<Event> {
+            @Override
+            public int compareTo(Event other) {
+                int byTime = Long.compare(at, other.at);
+                if (byTime != 0) {
+                    return byTime;
+                }
+                int byType = type.compareTo(other.type);
+                return byType != 0 ? byType : Long.compare(sequence, other.sequence);
+            }
+        }
+
+        private final Parking parking;
+        private final LocalTime startTime;
+        private final PriorityQueue<Event> events = new PriorityQueue<>();
+        private final ArrayDeque<long[]> waiting = new ArrayDeque<>();
+        private final WaitHistogram waits = new WaitHistogram();
+        private long sequence;
+        private long clock;
+        private int capacity;
+        private int occupied;
+        private long admitted;
+        private long maxWaiting;
+        private long capacityChanges;
+
+        SimulatedParking(Parking parking, LocalTime startTime) {
+            this.parking = parking;
+            this.startTime = startTime;
+        }
+
+        // Крутить події до вичерпання прибуттів або до межі untilNanos віртуального часу
+        void run(ArrivalProcess arrivals, long untilNanos) {
+            long started = System.nanoTime();
+            capacity = parking.getCurrentCapacity(startTime);
+            scheduleNextSwitch(0);
+            scheduleArrival(arrivals.next());
+            Event event;
+            while ((event = events.poll()) != null && event.at() <= untilNanos) {
+                clock = event.at();
+                switch (event.type()) {
+                    case ARRIVAL -> {
+                        waiting.addLast(new long[]{clock, event.parkNanos()});
+                        maxWaiting = Math.max(maxWaiting, waiting.size());
+                        scheduleArrival(arrivals.next());
+                    }
+                    case DEPARTURE -> occupied--;
+                    case CAPACITY_CHANGE -> {
+                        int newCapacity = parking.getCurrentCapacity(timeOfDay(clock));
+                        if (newCapacity != capacity) {
+                            capacityChanges++;
+                            log(clock, "ЗМІНА ЛІМІТУ: " + (parking.isDayCapacity(newCapacity) ? "**ДЕНЬ**" : "**НІЧ**")
+                                    + " (" + newCapacity + " місць), зайнято " + occupied + ", у черзі " + waiting.size());
+                        }
+                        capacity = newCapacity;
+                        scheduleNextSwitch(clock);
+                    }
+                }
+                admitWaiting();
+            }
+            report(System.nanoTime() - started);
+        }
+
+        private void admitWaiting() {
+            while (occupied < capacity && !waiting.isEmpty()) {
+                long[] car = waiting.pollFirst();
+                waits.record(clock - car[0]);
+                occupied++;
+                admitted++;
+                events.add(new Event(clock + car[1], EventType.DEPARTURE, sequence++, 0));
+            }
+        }
+
+        private void scheduleArrival(Arrival arrival) {
+            if (arrival != null) {
+                events.add(new Event(arrival.atNanos(), EventType.ARRIVAL, sequence++, arrival.parkNanos()));
+            }
+        }
+
+        // наступна з моментів 06:00 / 21:00 строго після from
+        private void scheduleNextSwitch(long from) {
+            long startOfDay = startTime.toNanoOfDay();
+            long best = Long.MAX_VALUE;
+            for (LocalTime switchTime : parking.switchTimes()) {
+                long offset = Math.floorMod(switchTime.toNanoOfDay() - startOfDay - from, NANOS_PER_DAY);
+                best = Math.min(best, from + (offset == 0 ? NANOS_PER_DAY : offset));
+            }
+            events.add(new Event(best, EventType.CAPACITY_CHANGE, sequence++, 0));
+        }
+
+        private LocalTime timeOfDay(long simulatedNanos) {
+            return startTime.plusNanos(simulatedNanos % NANOS_PER_DAY);
+        }
+
+        private void log(long simulatedNanos, String message) {
+            long day = (startTime.toNanoOfDay() + simulatedNanos) / NANOS_PER_DAY + 1;
+            print("День " + day + " " + timeOfDay(simulatedNanos).format(TIME_FORMATTER) + " | " + message);
+        }
+
+        private void report(long elapsedNanos) {
+            flushLog();
+            System.out.println("==========================================================================");
+            System.out.printf("| %-28s | %-39.2f |\n", "Віртуальний час, діб", clock / (double) NANOS_PER_DAY);
+            System.out.printf("| %-28s | %-39.3f |\n", "Реальний час, с", elapsedNanos / 1e9);
+            System.out.printf("| %-28s | %-39d |\n", "Авто заїхало", admitted);
+            System.out.printf("| %-28s | %-39d |\n", "Змін ліміту", capacityChanges);
+            System.out.printf("| %-28s | %-39d |\n", "Найдовша черга", maxWaiting);
+            System.out.printf("| %-28s | %-39.1f |\n", "Очікування p50, с", waits.percentileMicros(0.50) / 1e6);
+            System.out.printf("| %-28s | %-39.1f |\n", "Очікування p99, с", waits.percentileMicros(0.99) / 1e6);
+            System.out.println("==========================================================================");
+        }
+    }
+
+    // Аргументи: sim [діб] [авто/год] [середня стоянка, хв] [зерно] [місць вдень] [місць вночі]
+    private static void runSimulatedMode(String[] args) {
+        double days = args.length > 1 ? Double.parseDouble(args[1]) : 7;
+        double carsPerHour = args.length > 2 ? Double.parseDouble(args[2]) : 4;
+        double meanParkMinutes = args.length > 3 ? Double.parseDouble(args[3]) : 60;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 42;
+        int day = args.length > 5 ? Integer.parseInt(args[5]) : Parking.DAY_CAPACITY;
+        int night = args.length > 6 ? Integer.parseInt(args[6]) : Parking.NIGHT_CAPACITY;
+
+        long untilNanos = (long) (days * SimulatedParking.NANOS_PER_DAY);
+        ArrivalProcess arrivals = new PoissonArrivals(Long.MAX_VALUE, carsPerHour / 3600.0, meanParkMinutes * 60e9, seed);
+        log("Симуляція у віртуальному часі: " + days + " діб, " + carsPerHour + " авто/год, зерно " + seed);
+        new SimulatedParking(new Parking(day, night), LocalTime.MIDNIGHT).run(arrivals, untilNanos);
+    }
+
+    // Аргументи: load [авто] [авто/с] [середня стоянка, мс] [місць вдень] [місць вночі]
+    //        або load trace <файл> [місць вдень] [місць вночі]
+    private static void runLoadMode(String[] args) throws IOException, InterruptedException {
+        boolean trace = args.length > 1 && args[1].equals("trace");
+        int capacityArg = trace ? 3 : 4;
+        int day = args.length > capacityArg ? Integer.parseInt(args[capacityArg]) : 500;
+        int night = args.length > capacityArg + 1 ? Integer.parseInt(args[capacityArg + 1]) : 800;
+        long meanParkNanos = (long) ((!trace && args.length > 3 ? Double.parseDouble(args[3]) : 2.0) * 1_000_000);
+
+        ArrivalProcess arrivals;
+        if (trace) {
+            arrivals = new TraceArrivals(Path.of(args[2]), meanParkNanos);
+            log("Режим навантаження: трасування " + args[2]);
+        } else {
+            long cars = args.length > 1 ? Long.parseLong(args[1]) : 200_000;
+            double rate = args.length > 2 ? Double.parseDouble(args[2]) : 50_000;
+            arrivals = new PoissonArrivals(cars, rate, meanParkNanos, 42);
+            log("Режим навантаження: " + cars + " авто, " + (long) rate + " авто/с (Пуассон)");
+        }
+
+        Parking parking = new Parking(day, night);
+        parking.updateCapacity();
+        log("Місць: вдень " + day + ", вночі " + night + ". Поточний ліміт: " + parking.getCurrentCapacity(LocalTime.now()));
+        new LoadTest(parking, LOAD_MAX_IN_FLIGHT).run(arrivals);
+    }
+
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length > 0 && args[0].equals("load")) {
+            runLoadMode(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("sim")) {
+            runSimulatedMode(args);
+            return;
+        }
+
+        print("==================================================================================================================================");
+        print(" СИМУЛЯЦІЯ ПАРКУВАННЯ ");
+        print("----------------------------------------------------------------------------------------------------------------------------------");
         log("Симуляція розпочата. Тривалість: " + (SIMULATION_DURATION_MS / 1000) + " сек.");
-        System.out.println("----------------------------------------------------------------------------------------------------------------------------------");
+        print("----------------------------------------------------------------------------------------------------------------------------------");
 
         Parking parking = new Parking();
         List<Thread> carThreads = new ArrayList<>();
@@ -219,7 +1209,7 @@ public class ParkingSimulation {
         Thread timeThread = new Thread(timeUpdater, "TimeUpdater");
         timeThread.start();
 
-        Monitor monitor = new Monitor(parking, carThreads);
+        Monitor monitor = new Monitor(parking);
         Thread monitorThread = new Thread(monitor, "Monitor");
         monitorThread.start();
 
@@ -241,7 +1231,7 @@ public class ParkingSimulation {
             monitorThread.interrupt();
             monitorThread.join();
 
-            System.out.println("\n\n==================================================================================================================================");
+            print("\n\n==================================================================================================================================");
             log("СИМУЛЯЦІЯ ЗАВЕРШУЄТЬСЯ. Примусове переривання потоків.");
             
             for (Thread t : carThreads) {
@@ -263,8 +1253,9 @@ public class ParkingSimulation {
             Thread.currentThread().interrupt();
         }
         
-        System.out.println("\n==================================================================================================================================");
+        print("\n==================================================================================================================================");
         log(" СИМУЛЯЦІЯ УСПІШНО ЗАВЕРШЕНА.");
-        System.out.println("==================================================================================================================================");
+        print("==================================================================================================================================");
+        flushLog();
     }
 }
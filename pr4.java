@@ -2,128 +2,781 @@ import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PrimitiveIterator;
 import java.util.Random;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadLocalRandom;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 public class CompletableFutureTasks {
 
+    private static final StageMetrics METRICS = new StageMetrics();
+    private static final ForkJoinPool CPU_POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    private static final FactorialEngine FACTORIALS = new FactorialEngine(CPU_POOL, 32);
+
     public static void main(String[] args) {
-        System.out.println(" ЗАВДАННЯ 1 ");
-        performTask1().join();
+        boolean json = Arrays.asList(args).contains("--json");
+        // --export=<секунд> - періодичний знімок метрик під час роботи, а не лише в кінці
+        long exportSeconds = 0;
+        for (String arg : args) {
+            if (arg.startsWith("--export=")) {
+                exportSeconds = Long.parseLong(arg.substring("--export=".length()));
+            }
+        }
+        StageMetrics.Export export = exportSeconds > 0
+                ? METRICS.startPeriodicExport(exportSeconds, TimeUnit.SECONDS, json, System.out::println)
+                : () -> { };
+        try (StageExecutors executors = new StageExecutors(CPU_POOL)) {
+            System.out.println(" ЗАВДАННЯ 1 ");
+            performTask1(executors).join();
+            System.out.println("Переходів між пулами: " + executors.hopsAndReset());
+
+            System.out.println("\n-----------------------------------\n");
+
+            System.out.println(" ЗАВДАННЯ 2 ");
+            performTask2(executors).join();
+            System.out.println("Переходів між пулами: " + executors.hopsAndReset());
+        } finally {
+            export.close();
+        }
 
-        System.out.println("\n-----------------------------------\n");
+        System.out.println("\n--- Метрики етапів ---");
+        System.out.println(json ? METRICS.snapshotJson() : METRICS.snapshotText());
 
-        System.out.println(" ЗАВДАННЯ 2 ");
-        performTask2().join();
+        // Звірка потокового WindowSumStream з паралельним minMax - окремо від конвеєра, лише на вимогу
+        if (Arrays.asList(args).contains("--check")) {
+            int[] sample = ThreadLocalRandom.current().ints(1 << 20).toArray();
+            System.out.println("Перевірка WindowSumStream: "
+                    + (WindowSumStream.crossCheck(CPU_POOL, sample, 2) ? "OK" : "РОЗБІЖНІСТЬ"));
+        }
     }
 
     // 1 завдання
-    private static CompletableFuture<Void> performTask1() {
-        //  Асинхронне генерація масиву 
-        return CompletableFuture.supplyAsync(() -> {
-            long start = System.nanoTime();
-            
+    private static CompletableFuture<Void> performTask1(StageExecutors executors) {
+        //  Генерація масиву і другий масив (+5) - дешеві етапи, зливаються в один і не потребують окремого потоку
+        return Pipeline.start("Генерація масиву 1", StageKind.CHEAP, () -> {
             int[] array = new int[10];
             Random random = new Random();
             for (int i = 0; i < array.length; i++) {
                 array[i] = random.nextInt(20) + 1; // Числа від 1 до 20 ,обмеження щоб факторіал не був завеликим
             }
-            
-            printTime("Генерація масиву 1", start);
             System.out.println("Масив 1: " + Arrays.toString(array));
             return array;
         })
-        //  Отримання масиву, створення другого масиву 
-        .thenApplyAsync((firstArray) -> {
-            long start = System.nanoTime();
-            
+        .then("Створення масиву 2 (+5)", StageKind.CHEAP, (int[] firstArray) -> {
             int[] secondArray = Arrays.stream(firstArray).map(i -> i + 5).toArray();
-            
-            printTime("Створення масиву 2 (+5)", start);
             System.out.println("Масив 2: " + Arrays.toString(secondArray));
-            
+
             // Повертаємо контейнер з обома масивами для наступного кроку
-            return new int[][]{firstArray, secondArray}; 
+            return new int[][]{firstArray, secondArray};
         })
-        //  Обчислення факторіалу від суми елементів обох масивів
-        .thenApplyAsync((arrays) -> {
-            long start = System.nanoTime();
-            
+        //  Обчислення факторіалу від суми елементів обох масивів - на окремому CPU-пулі
+        .then("Обчислення факторiалу", StageKind.CPU, (int[][] arrays) -> {
             int sum1 = Arrays.stream(arrays[0]).sum();
             int sum2 = Arrays.stream(arrays[1]).sum();
             int totalSum = sum1 + sum2;
-            
+
             System.out.println("Сума масиву 1: " + sum1 + ", Сума масиву 2: " + sum2 + ". Загальна сума: " + totalSum);
-            
-            BigInteger factorial = calculateFactorial(totalSum);
-            
-            printTime("Обчислення факторiалу", start);
-            return factorial;
+
+            return FACTORIALS.factorial(totalSum);
         })
-        // Виведення результату 
-        .thenAcceptAsync((factorial) -> {
-            long start = System.nanoTime();
-            System.out.println("РЕЗУЛЬТАТ (Факторiал): " + factorial);
-            printTime("Виведення результату", start);
-        });
+        // Виведення результату - блокуючий ввід/вивід, на віртуальному потоці
+        .thenAccept("Виведення результату", StageKind.BLOCKING,
+                factorial -> System.out.println("РЕЗУЛЬТАТ (Факторiал): " + factorial))
+        .run(executors);
     }
 
     // 2 завдання
-    private static CompletableFuture<Void> performTask2() {
+    private static CompletableFuture<Void> performTask2(StageExecutors executors) {
         long globalStart = System.nanoTime();
 
         //  Генеруємо послідовність
-        CompletableFuture<List<Integer>> sequenceTask = CompletableFuture.supplyAsync(() -> {
-            List<Integer> list = IntStream.range(0, 20)
-                    .mapToObj(i -> ThreadLocalRandom.current().nextInt(1, 100))
-                    .collect(Collectors.toList());
-            
-            System.out.println("Згенерована послідовність: " + list);
-            return list;
-        });
+        return Pipeline.start("Генерація послідовності", StageKind.CHEAP, () -> {
+            int[] sequence = ThreadLocalRandom.current().ints(20, 1, 100).toArray();
+
+            System.out.println("Згенерована послідовність: " + Arrays.toString(sequence));
+            return sequence;
+        })
+        // К Обчислюємо min за формулою (a1+a2, a2+a3) - потоковим оператором без проміжних списків
+        .then("Пошук мінімальної суми", StageKind.CHEAP, (int[] sequence) -> {
+            WindowSumStream window = new WindowSumStream(2);
+            window.acceptAll(sequence, 0, sequence.length);
+            if (window.windows() == 0) return "Недостатньо елементів";
 
-        // К Обчислюємо min за формулою (a1+a2, a2+a3)
-        CompletableFuture<String> calculationTask = sequenceTask.thenApplyAsync((list) -> {
-            if (list.size() < 2) return "Недостатньо елементів";
+            return "Мiнiмальна сума сусiднiх елементiв: " + window.globalMin()
+                    + " (максимальна: " + window.globalMax() + ", сум: " + window.windows() + ")";
+        })
+        // Виводимо результат
+        .thenAccept("Виведення результату", StageKind.BLOCKING, resultInfo -> System.out.println(resultInfo))
+        .run(executors)
+        //  виведення загального часу - в тому ж потоці, без ще одного переходу
+        .thenRun(() -> recordTime("ЗАГАЛЬНИЙ ЧАС виконання Завдання 2", globalStart));
+    }
+
+    // Тип етапу визначає, де він виконується:
+    //   CHEAP    - у потоці попереднього етапу (або викликача), без переходу;
+    //   CPU      - на окремому пулі розміром з кількість ядер, а не в ForkJoinPool.commonPool();
+    //   BLOCKING - на віртуальному потоці.
+    enum StageKind { CHEAP, CPU, BLOCKING }
+
+    static class StageExecutors implements AutoCloseable {
+        private final ForkJoinPool cpu;
+        private final ExecutorService blocking =
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("stage-blocking-", 0).factory());
+        private final LongAdder hops = new LongAdder();
+
+        StageExecutors(ForkJoinPool cpu) {
+            this.cpu = cpu;
+        }
+
+        Executor executorFor(StageKind kind) {
+            return kind == StageKind.CPU ? cpu : blocking;
+        }
 
-            int minSum = Integer.MAX_VALUE;
-            List<Integer> sums = new ArrayList<>();
+        void recordHop() {
+            hops.increment();
+        }
+
+        long hopsAndReset() {
+            return hops.sumThenReset();
+        }
 
-            for (int i = 0; i < list.size() - 1; i++) {
-                int sum = list.get(i) + list.get(i + 1);
-                sums.add(sum);
-                if (sum < minSum) {
-                    minSum = sum;
+        // CPU-пул спільний і живе разом із класом, закриваємо лише свої віртуальні потоки
+        @Override
+        public void close() {
+            blocking.close();
+        }
+    }
+
+    // Ланцюжок етапів CompletableFuture. Сусідні етапи зливаються в один перехід:
+    // CHEAP приєднується до попереднього етапу, а однотипні CPU/BLOCKING виконуються одним завданням
+    static class Pipeline<T> {
+        private final List<Stage> stages;
+
+        private static class Stage {
+            final String name;
+            final StageKind kind;
+            final Function<Object, Object> body;
+
+            Stage(String name, StageKind kind, Function<Object, Object> body) {
+                this.name = name;
+                this.kind = kind;
+                this.body = body;
+                this.stats = METRICS.stage(name);
+            }
+
+            final StageMetrics.StageStats stats;
+
+            // queuedSince < 0 - етап не стояв у черзі виконавця (виконується в тому ж потоці)
+            Object apply(Object value, long queuedSince) {
+                long start = System.nanoTime();
+                Object result = body.apply(value);
+                long runNanos = System.nanoTime() - start;
+                if (queuedSince < 0) {
+                    stats.record(runNanos);
+                } else {
+                    stats.record(start - queuedSince, runNanos);
                 }
+                return result;
             }
-            return "Мiнiмальна сума сусiднiх елементiв: " + minSum + " (iз сум: " + sums + ")";
-        });
+        }
 
-        // Виводимо результат
-        CompletableFuture<Void> printTask = calculationTask.thenAcceptAsync((resultInfo) -> {
-            System.out.println(resultInfo);
-        });
-
-        //  виведення загального часу
-        return printTask.thenRunAsync(() -> {
-            printTime("ЗАГАЛЬНИЙ ЧАС виконання Завдання 2", globalStart);
-        });
+        private Pipeline(List<Stage> stages) {
+            this.stages = stages;
+        }
+
+        static <T> Pipeline<T> start(String name, StageKind kind, Supplier<? extends T> supplier) {
+            List<Stage> stages = new ArrayList<>();
+            stages.add(new Stage(name, kind, ignored -> supplier.get()));
+            return new Pipeline<>(stages);
+        }
+
+        @SuppressWarnings("unchecked")
+        <R> Pipeline<R> then(String name, StageKind kind, Function<? super T, ? extends R> function) {
+            List<Stage> next = new ArrayList<>(stages);
+            next.add(new Stage(name, kind, value -> function.apply((T) value)));
+            return new Pipeline<>(next);
+        }
+
+        Pipeline<Void> thenAccept(String name, StageKind kind, Consumer<? super T> consumer) {
+            return then(name, kind, value -> {
+                consumer.accept(value);
+                return null;
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        CompletableFuture<T> run(StageExecutors executors) {
+            CompletableFuture<Object> future = CompletableFuture.completedFuture(null);
+            // момент, коли попередній перехід віддав значення далі; етапи йдуть строго один за одним
+            long[] handoff = {System.nanoTime()};
+            int from = 0;
+            while (from < stages.size()) {
+                StageKind hopKind = stages.get(from).kind;
+                int to = from + 1;
+                while (to < stages.size() && (stages.get(to).kind == StageKind.CHEAP || stages.get(to).kind == hopKind)) {
+                    to++;
+                }
+                List<Stage> fused = stages.subList(from, to);
+                boolean queued = hopKind != StageKind.CHEAP;
+                Function<Object, Object> body = value -> {
+                    // у черзі чекає лише перший етап асинхронного переходу; злиті за ним виконуються одразу
+                    long queuedSince = queued ? handoff[0] : -1;
+                    for (Stage stage : fused) {
+                        value = stage.apply(value, queuedSince);
+                        queuedSince = -1;
+                    }
+                    handoff[0] = System.nanoTime();
+                    return value;
+                };
+                if (hopKind == StageKind.CHEAP) {
+                    future = future.thenApply(body);
+                } else {
+                    future = future.thenApplyAsync(value -> {
+                        executors.recordHop();
+                        return body.apply(value);
+                    }, executors.executorFor(hopKind));
+                }
+                from = to;
+            }
+            return (CompletableFuture<T>) future;
+        }
+    }
+
+
+    // Замір часу без консольного виводу: лише запис у гістограму етапу (черги тут немає)
+    private static void recordTime(String operationName, long startTimeNano) {
+        METRICS.stage(operationName).record(System.nanoTime() - startTimeNano);
+    }
+
+    // Гістограма латентностей у стилі HDR: діапазони [2^k; 2^(k+1)) нс, кожен поділений на 16 рівних кошиків,
+    // тож відносна похибка не більша за 1/16. Запис - один інкремент в AtomicLongArray, без блокувань
+    static class LatencyHistogram {
+        private static final int SUB_BUCKET_BITS = 4;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        void record(long nanos) {
+            long value = Math.max(0, nanos);
+            counts.incrementAndGet(indexFor(value));
+            count.increment();
+            sum.add(value);
+            max.accumulate(value);
+        }
+
+        static int indexFor(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int shift = exponent - SUB_BUCKET_BITS;
+            int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+            return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+        }
+
+        // верхня межа кошика
+        static long valueFor(int index) {
+            if (index < SUB_BUCKETS) {
+                return index;
+            }
+            int shift = index / SUB_BUCKETS - 1;
+            long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+            return lower + (1L << shift) - 1;
+        }
+
+        long count() {
+            return count.sum();
+        }
+
+        long max() {
+            return max.get();
+        }
+
+        double mean() {
+            long n = count.sum();
+            return n == 0 ? 0 : (double) sum.sum() / n;
+        }
+
+        long percentile(double p) {
+            long total = count.sum();
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(p * total);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts.get(i);
+                if (seen >= rank) {
+                    return Math.min(valueFor(i), max());
+                }
+            }
+            return max();
+        }
+    }
+
+    // Реєстр метрик етапів: час у черзі (від передачі значення до старту) окремо від часу виконання,
+    // і на якому потоці етап виконувався. Знімок - текстом або JSON, на вимогу чи періодично
+    static class StageMetrics {
+        private final Map<String, StageStats> stages = new ConcurrentHashMap<>();
+
+        static class StageStats {
+            final String name;
+            final LatencyHistogram queueWait = new LatencyHistogram();
+            final LatencyHistogram runTime = new LatencyHistogram();
+            final LongAdder onVirtualThreads = new LongAdder();
+            volatile String lastThread = "";
+
+            StageStats(String name) {
+                this.name = name;
+            }
+
+            void record(long queueWaitNanos, long runNanos) {
+                queueWait.record(queueWaitNanos);
+                record(runNanos);
+            }
+
+            // етап без черги: нуль у гістограмі очікування лише зсунув би її перцентилі
+            void record(long runNanos) {
+                Thread thread = Thread.currentThread();
+                runTime.record(runNanos);
+                if (thread.isVirtual()) {
+                    onVirtualThreads.increment();
+                }
+                lastThread = thread.getName();
+            }
+        }
+
+        StageStats stage(String name) {
+            StageStats stats = stages.get(name);
+            return stats != null ? stats : stages.computeIfAbsent(name, StageStats::new);
+        }
+
+        String snapshotText() {
+            StringBuilder text = new StringBuilder();
+            text.append(String.format("%-36s | %8s | %10s | %10s | %10s | %10s | %10s | %10s | %s%n",
+                    "ЕТАП", "ВИКЛИКІВ", "p50, мкс", "p99, мкс", "max, мкс", "черга p50", "черга p99", "віртуальні", "ОСТАННІЙ ПОТІК"));
+            for (StageStats stats : stages.values()) {
+                boolean queued = stats.queueWait.count() > 0;
+                text.append(String.format("%-36s | %8d | %10.1f | %10.1f | %10.1f | %10s | %10s | %10d | %s%n",
+                        stats.name, stats.runTime.count(),
+                        stats.runTime.percentile(0.50) / 1e3, stats.runTime.percentile(0.99) / 1e3, stats.runTime.max() / 1e3,
+                        queued ? String.format("%.1f", stats.queueWait.percentile(0.50) / 1e3) : "-",
+                        queued ? String.format("%.1f", stats.queueWait.percentile(0.99) / 1e3) : "-",
+                        stats.onVirtualThreads.sum(), stats.lastThread));
+            }
+            return text.toString();
+        }
+
+        String snapshotJson() {
+            StringBuilder json = new StringBuilder("{\"stages\":[");
+            boolean first = true;
+            for (StageStats stats : stages.values()) {
+                if (!first) {
+                    json.append(',');
+                }
+                first = false;
+                json.append("{\"name\":\"").append(escapeJson(stats.name)).append('"')
+                    .append(",\"count\":").append(stats.runTime.count())
+                    .append(",\"runNanos\":").append(histogramJson(stats.runTime))
+                    .append(",\"queueWaitNanos\":").append(stats.queueWait.count() > 0 ? histogramJson(stats.queueWait) : "null")
+                    .append(",\"virtualThreadRuns\":").append(stats.onVirtualThreads.sum())
+                    .append(",\"lastThread\":\"").append(escapeJson(stats.lastThread)).append("\"}");
+            }
+            return json.append("]}").toString();
+        }
+
+        interface Export extends AutoCloseable {
+            @Override
+            void close();
+        }
+
+        // Знімок у sink кожні period; закриття зупиняє експорт
+        Export startPeriodicExport(long period, TimeUnit unit, boolean json, Consumer<String> sink) {
+            ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "stage-metrics-export");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleAtFixedRate(() -> sink.accept(json ? snapshotJson() : snapshotText()), period, period, unit);
+            return scheduler::shutdownNow;
+        }
+
+        private static String histogramJson(LatencyHistogram histogram) {
+            return String.format(Locale.ROOT, "{\"p50\":%d,\"p90\":%d,\"p99\":%d,\"max\":%d,\"mean\":%.1f}",
+                    histogram.percentile(0.50), histogram.percentile(0.90), histogram.percentile(0.99),
+                    histogram.max(), histogram.mean());
+        }
+
+        private static String escapeJson(String value) {
+            return value.replace("\\", "\\\\").replace("\"", "\\\"");
+        }
     }
 
+    // Факторіал через непарну частину: n! = 2^(n - popcount(n)) * П OddProd(n >> k),
+    // де OddProd(m) - добуток непарних чисел <= m. Добутки діапазонів рахуються збалансованим
+    // бінарним деревом на ForkJoinPool, а готові результати лежать в обмеженому LRU-кеші:
+    // повтор n береться з кешу, а близьке n домножується від найближчого меншого збереженого
+    static class FactorialEngine {
+        private static final int LEAF_TERMS = 32;
+        private static final int NEARBY_FRACTION = 4;
+
+        private final ForkJoinPool pool;
+        private final Map<Integer, BigInteger> cache;
+
+        FactorialEngine(ForkJoinPool pool, int cacheSize) {
+            this.pool = pool;
+            this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, BigInteger> eldest) {
+                    return size() > cacheSize;
+                }
+            };
+        }
+
+        BigInteger factorial(int n) {
+            if (n < 0) {
+                throw new IllegalArgumentException("Факторіал від'ємного числа не визначений: " + n);
+            }
+            if (n < 2) {
+                return BigInteger.ONE;
+            }
+            int nearest = -1;
+            BigInteger nearestValue = null;
+            synchronized (cache) {
+                BigInteger cached = cache.get(n);
+                if (cached != null) {
+                    return cached;
+                }
+                for (Map.Entry<Integer, BigInteger> entry : cache.entrySet()) {
+                    int m = entry.getKey();
+                    if (m < n && m > nearest && n - m <= n / NEARBY_FRACTION) {
+                        nearest = m;
+                        nearestValue = entry.getValue();
+                    }
+                }
+            }
+            BigInteger result = nearestValue != null
+                    ? nearestValue.multiply(product(nearest + 1, n - nearest, 1))
+                    : oddSplitFactorial(n);
+            synchronized (cache) {
+                cache.put(n, result);
+            }
+            return result;
+        }
+
+        private BigInteger oddSplitFactorial(int n) {
+            BigInteger oddPart = BigInteger.ONE;
+            BigInteger oddProduct = BigInteger.ONE;
+            long high = 1;
+            for (int k = 31 - Integer.numberOfLeadingZeros(n); k >= 0; k--) {
+                long newHigh = ((n >> k) - 1) | 1;
+                if (newHigh > high) {
+                    oddProduct = oddProduct.multiply(product(high + 2, (newHigh - high) / 2, 2));
+                    high = newHigh;
+                }
+                oddPart = oddPart.multiply(oddProduct);
+            }
+            return oddPart.shiftLeft(n - Integer.bitCount(n));
+        }
+
+        // добуток count членів first, first + step, first + 2*step, ...
+        BigInteger product(long first, long count, int step) {
+            return pool.invoke(new ProductTask(first, count, step));
+        }
+
+        private static class ProductTask extends RecursiveTask<BigInteger> {
+            private final long first;
+            private final long count;
+            private final int step;
+
+            ProductTask(long first, long count, int step) {
+                this.first = first;
+                this.count = count;
+                this.step = step;
+            }
+
+            @Override
+            protected BigInteger compute() {
+                if (count <= LEAF_TERMS) {
+                    // множимо в long, поки вміщується, і лише потім переходимо до BigInteger
+                    BigInteger result = BigInteger.ONE;
+                    long accumulator = 1;
+                    for (long i = 0, value = first; i < count; i++, value += step) {
+                        if (accumulator > Long.MAX_VALUE / value) {
+                            result = result.multiply(BigInteger.valueOf(accumulator));
+                            accumulator = 1;
+                        }
+                        accumulator *= value;
+                    }
+                    return result.multiply(BigInteger.valueOf(accumulator));
+                }
+                long half = count / 2;
+                ProductTask left = new ProductTask(first, half, step);
+                left.fork();
+                BigInteger right = new ProductTask(first + half * step, count - half, step).compute();
+                return left.join().multiply(right);
+            }
+        }
+    }
+
+    // Порівняння FactorialEngine з послідовним циклом calculateFactorial.
+    // Запуск: java CompletableFutureTasks$FactorialBenchmark
+    static class FactorialBenchmark {
+        private static final int[] SIZES = {1_000, 5_000, 20_000, 50_000, 100_000};
+
+        public static void main(String[] args) {
+            System.out.printf("%-10s | %14s | %14s | %14s | %14s | %s%n",
+                    "n", "цикл, мс", "рушій, мс", "повтор, мс", "n+100, мс", "збіг");
+            ForkJoinPool pool = new ForkJoinPool();
+            for (int n : SIZES) {
+                FactorialEngine engine = new FactorialEngine(pool, 8);
+                calculateFactorial(n / 10);
+                engine.factorial(n / 10);
+
+                long start = System.nanoTime();
+                BigInteger expected = calculateFactorial(n);
+                long loopNanos = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                BigInteger actual = engine.factorial(n);
+                long engineNanos = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                engine.factorial(n);
+                long cachedNanos = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                BigInteger nearby = engine.factorial(n + 100);
+                long nearbyNanos = System.nanoTime() - start;
+
+                BigInteger expectedNearby = expected;
+                for (int i = n + 1; i <= n + 100; i++) {
+                    expectedNearby = expectedNearby.multiply(BigInteger.valueOf(i));
+                }
+                boolean matches = expected.equals(actual) && nearby.equals(expectedNearby);
+                System.out.printf("%-10d | %14.3f | %14.3f | %14.3f | %14.3f | %s%n",
+                        n, loopNanos / 1e6, engineNanos / 1e6, cachedNanos / 1e6, nearbyNanos / 1e6, matches);
+            }
+            pool.shutdown();
+        }
+    }
+
+    // Потоковий оператор над int-послідовністю: суми вікон ширини width і їх min/max -
+    // глобальні та за останні span вікон (монотонні деки). Пам'ять - O(width + span) незалежно
+    // від довжини потоку; кожні checkpointEvery вікон слухач отримує знімок
+    static class WindowSumStream {
+        private final int width;
+        private final int span;
+        private final long checkpointEvery;
+        private final Consumer<Checkpoint> listener;
+
+        private final int[] recent;
+        private final MonotonicDeque spanMin;
+        private final MonotonicDeque spanMax;
+        private long values;
+        private long windowSum;
+        private long globalMin = Long.MAX_VALUE;
+        private long globalMax = Long.MIN_VALUE;
+
+        record Checkpoint(long windows, long windowSum, long spanMin, long spanMax, long globalMin, long globalMax) {}
+
+        WindowSumStream(int width) {
+            this(width, 1, 0, checkpoint -> { });
+        }
+
+        WindowSumStream(int width, int span, long checkpointEvery, Consumer<Checkpoint> listener) {
+            if (width < 1 || span < 1) {
+                throw new IllegalArgumentException("width і span мають бути >= 1");
+            }
+            this.width = width;
+            this.span = span;
+            this.checkpointEvery = checkpointEvery;
+            this.listener = listener;
+            this.recent = new int[width];
+            this.spanMin = new MonotonicDeque(span, true);
+            this.spanMax = new MonotonicDeque(span, false);
+        }
+
+        void accept(int value) {
+            int slot = (int) (values % width);
+            windowSum += (long) value - (values >= width ? recent[slot] : 0);
+            recent[slot] = value;
+            values++;
+            if (values < width) {
+                return;
+            }
+            long window = values - width;
+            spanMin.push(window, windowSum);
+            spanMax.push(window, windowSum);
+            spanMin.expire(window - span);
+            spanMax.expire(window - span);
+            globalMin = Math.min(globalMin, windowSum);
+            globalMax = Math.max(globalMax, windowSum);
+            if (checkpointEvery > 0 && (window + 1) % checkpointEvery == 0) {
+                listener.accept(checkpoint());
+            }
+        }
+
+        void acceptAll(int[] array, int from, int to) {
+            for (int i = from; i < to; i++) {
+                accept(array[i]);
+            }
+        }
+
+        // Безкінечне джерело (сенсор) читається до вичерпання або до maxValues значень
+        void drain(PrimitiveIterator.OfInt source, long maxValues) {
+            for (long i = 0; i < maxValues && source.hasNext(); i++) {
+                accept(source.nextInt());
+            }
+        }
+
+        long windows() {
+            return Math.max(0, values - width + 1);
+        }
+
+        long globalMin() {
+            return globalMin;
+        }
+
+        long globalMax() {
+            return globalMax;
+        }
+
+        Checkpoint checkpoint() {
+            return new Checkpoint(windows(), windowSum, spanMin.head(), spanMax.head(), globalMin, globalMax);
+        }
+
+        // Дек на кільцевому масиві: значення монотонні від голови до хвоста, голова - екстремум
+        private static class MonotonicDeque {
+            private final long[] positions;
+            private final long[] sums;
+            private final boolean minimum;
+            private int head;
+            private int size;
+
+            MonotonicDeque(int capacity, boolean minimum) {
+                this.positions = new long[capacity];
+                this.sums = new long[capacity];
+                this.minimum = minimum;
+            }
 
-    // метод для вимірювання та виведення часу виконання 
-    private static void printTime(String operationName, long startTimeNano) {
-        long duration = (System.nanoTime() - startTimeNano) / 1000; // переведення в мікросекунди
-        System.out.printf("[LOG] %s зайняло: %d мкс (Thread: %s)%n", 
-                operationName, duration, Thread.currentThread().getName());
+            void push(long position, long sum) {
+                while (size > 0) {
+                    long tail = sums[(head + size - 1) % sums.length];
+                    if (minimum ? tail < sum : tail > sum) {
+                        break;
+                    }
+                    size--;
+                }
+                if (size == sums.length) {
+                    head = (head + 1) % sums.length;
+                    size--;
+                }
+                int slot = (head + size) % sums.length;
+                positions[slot] = position;
+                sums[slot] = sum;
+                size++;
+            }
+
+            void expire(long lastExpired) {
+                while (size > 0 && positions[head] <= lastExpired) {
+                    head = (head + 1) % sums.length;
+                    size--;
+                }
+            }
+
+            long head() {
+                return sums[head];
+            }
+        }
+
+        // Паралельне зведення скінченного масиву: діапазон вікон ділиться навпіл, кожен лист
+        // дочитує width - 1 елементів за своєю межею, тож вікна на стиках не губляться.
+        // Повертає {min, max} або null, якщо вікон немає
+        static long[] minMax(ForkJoinPool pool, int[] array, int width) {
+            int windows = array.length - width + 1;
+            if (width < 1 || windows <= 0) {
+                return null;
+            }
+            return pool.invoke(new MinMaxTask(array, width, 0, windows));
+        }
+
+        // Звіряє потоковий прохід з паралельним зведенням того самого масиву
+        static boolean crossCheck(ForkJoinPool pool, int[] array, int width) {
+            WindowSumStream window = new WindowSumStream(width);
+            window.acceptAll(array, 0, array.length);
+            long[] parallel = minMax(pool, array, width);
+            if (parallel == null) {
+                return window.windows() == 0;
+            }
+            return parallel[0] == window.globalMin() && parallel[1] == window.globalMax();
+        }
+
+        private static class MinMaxTask extends RecursiveTask<long[]> {
+            private static final int LEAF_WINDOWS = 1 << 14;
+
+            private final int[] array;
+            private final int width;
+            private final int fromWindow;
+            private final int toWindow;
+
+            MinMaxTask(int[] array, int width, int fromWindow, int toWindow) {
+                this.array = array;
+                this.width = width;
+                this.fromWindow = fromWindow;
+                this.toWindow = toWindow;
+            }
+
+            @Override
+            protected long[] compute() {
+                if (toWindow - fromWindow <= LEAF_WINDOWS) {
+                    long sum = 0;
+                    for (int i = fromWindow; i < fromWindow + width; i++) {
+                        sum += array[i];
+                    }
+                    long min = sum;
+                    long max = sum;
+                    for (int w = fromWindow + 1; w < toWindow; w++) {
+                        sum += (long) array[w + width - 1] - array[w - 1];
+                        min = Math.min(min, sum);
+                        max = Math.max(max, sum);
+                    }
+                    return new long[]{min, max};
+                }
+                int mid = (fromWindow + toWindow) >>> 1;
+                MinMaxTask left = new MinMaxTask(array, width, fromWindow, mid);
+                left.fork();
+                long[] right = new MinMaxTask(array, width, mid, toWindow).compute();
+                long[] leftResult = left.join();
+                return new long[]{Math.min(leftResult[0], right[0]), Math.max(leftResult[1], right[1])};
+            }
+        }
     }
 
-    // метод для обчислення факторіалу 
-    private static BigInteger calculateFactorial(int n) {
+    // метод для обчислення факторіалу (послідовний еталон для FactorialBenchmark)
+    static BigInteger calculateFactorial(int n) {
         BigInteger result = BigInteger.ONE;
         for (int i = 2; i <= n; i++) {
             result = result.multiply(BigInteger.valueOf(i));